@@ -17,6 +17,8 @@ function App() {
     const [flows, setFlows] = useState([]);
     const [extractedData, setExtractedData] = useState([]);
     const [pages, setPages] = useState([]);
+    // Keyset cursor of the next page of each listing; null once it is fully loaded
+    const [cursors, setCursors] = useState({ pages: null, flows: null, extractedData: null });
     const [activeTab, setActiveTab] = useState('flows');
 
     // Configuration state
@@ -150,6 +152,12 @@ function App() {
             setCrawlStatus('FAILED');
             addLog('ERROR', `Crawl failed: ${data.error}`);
         });
+
+        wsService.on('EXPORT_PROGRESS', (data) => {
+            if (data.status === 'RUNNING') {
+                addLog('INFO', `Exporting: ${data.rowsExported} / ${data.totalRows} rows`);
+            }
+        });
     };
 
     // Load final data after crawl completion
@@ -163,14 +171,37 @@ function App() {
                 api.getExtractedData(sessionId)
             ]);
 
-            setPages(pagesData);
-            setFlows(flowsData);
-            setExtractedData(extractedData);
+            setPages(pagesData.items);
+            setFlows(flowsData.items);
+            setExtractedData(extractedData.items);
+            setCursors({
+                pages: pagesData.nextCursor,
+                flows: flowsData.nextCursor,
+                extractedData: extractedData.nextCursor
+            });
         } catch (error) {
             addLog('ERROR', `Failed to load final data: ${error.message}`);
         }
     };
 
+    // Load the next page of a listing
+    const handleLoadMore = async (listing) => {
+        const loaders = {
+            pages: [api.getPages, setPages],
+            flows: [api.getFlows, setFlows],
+            extractedData: [api.getExtractedData, setExtractedData]
+        };
+        const [load, setItems] = loaders[listing];
+
+        try {
+            const data = await load(sessionId, cursors[listing]);
+            setItems(prev => [...prev, ...data.items]);
+            setCursors(prev => ({ ...prev, [listing]: data.nextCursor }));
+        } catch (error) {
+            addLog('ERROR', `Failed to load more ${listing}: ${error.message}`);
+        }
+    };
+
     // Pause crawl
     const handlePauseCrawl = async () => {
         try {
@@ -222,6 +253,7 @@ function App() {
         setFlows([]);
         setExtractedData([]);
         setPages([]);
+        setCursors({ pages: null, flows: null, extractedData: null });
         wsService.disconnect();
         addLog('INFO', 'Ready for new crawl');
     };
@@ -238,8 +270,8 @@ function App() {
                 includeExtractedData: true,
                 includeDownloadedFiles: true
             });
-            addLog('SUCCESS', 'Export completed!');
-            console.log('Export files:', result);
+            addLog('SUCCESS', `Export completed: ${api.getExportDownloadUrl(sessionId, result.jobId)}`);
+            console.log('Export files:', result.result);
         } catch (error) {
             addLog('ERROR', `Export failed: ${error.message}`);
         }
@@ -315,6 +347,8 @@ function App() {
                     pages={pages}
                     activeTab={activeTab}
                     setActiveTab={setActiveTab}
+                    cursors={cursors}
+                    onLoadMore={handleLoadMore}
                     sessionId={sessionId}
                     onExport={handleExport}
                 />
@@ -549,7 +583,7 @@ function ConfigPanel({
 }
 
 // Dashboard Component
-function Dashboard({ stats, logs, flows, extractedData, pages, activeTab, setActiveTab, sessionId, onExport }) {
+function Dashboard({ stats, logs, flows, extractedData, pages, activeTab, setActiveTab, cursors, onLoadMore, sessionId, onExport }) {
     return (
         <div className="dashboard">
             {/* Stats Bar */}
@@ -563,6 +597,33 @@ function Dashboard({ stats, logs, flows, extractedData, pages, activeTab, setAct
                 <StatCard label="Queue" value={stats.queueSize} />
             </div>
 
+            {/* Results, loaded one page at a time */}
+            {(flows.length > 0 || pages.length > 0) && (
+                <div className="visualization-panel">
+                    <div className="viz-header">
+                        <h3>Results</h3>
+                        <div className="viz-tabs">
+                            {[['flows', 'Flows'], ['pages', 'Pages']].map(([tab, label]) => (
+                                <div
+                                    key={tab}
+                                    className={`viz-tab ${activeTab === tab ? 'active' : ''}`}
+                                    onClick={() => setActiveTab(tab)}
+                                >
+                                    {label}
+                                </div>
+                            ))}
+                        </div>
+                    </div>
+                    <div className="viz-content">
+                        {activeTab === 'flows' ? <FlowVisualization flows={flows} /> : <PagesList pages={pages} />}
+                        {cursors[activeTab] !== null && (
+                            <button className="btn btn-secondary btn-small" onClick={() => onLoadMore(activeTab)}>
+                                Load more
+                            </button>
+                        )}
+                    </div>
+                </div>
+            )}
 
             {/* Activity Log */}
             <div style={{padding: '20px', paddingTop: '10px'}}>
@@ -613,7 +674,7 @@ function FlowVisualization({ flows }) {
             .attr('height', height);
 
         // Create simple tree layout
-        const nodes = flows.slice(0, 20).map((flow, i) => ({
+        const nodes = flows.map((flow, i) => ({
             id: i,
             flow: flow,
             x: 50,
@@ -637,7 +698,7 @@ function FlowVisualization({ flows }) {
         return <div style={{color: '#666', textAlign: 'center', marginTop: '50px'}}>No flows discovered yet</div>;
     }
 
-    return <svg ref={svgRef} style={{width: '100%', height: '100%'}}></svg>;
+    return <svg ref={svgRef} style={{width: '100%', height: `${50 + flows.length * 30}px`}}></svg>;
 }
 
 // Pages List Component
@@ -678,7 +739,7 @@ function ExportPanel({ onExport }) {
             <div className="export-options">
                 <strong style={{color: '#667eea'}}>Export:</strong>
                 <div className="export-format-group">
-                    {['CSV', 'EXCEL', 'PDF'].map(format => (
+                    {['CSV', 'JSONL', 'EXCEL', 'PDF'].map(format => (
                         <div key={format} className="checkbox-group">
                             <input
                                 type="checkbox"
@@ -4,6 +4,17 @@
 
 const API_BASE_URL = 'http://localhost:8080/api';
 
+const PAGE_SIZE = 100;
+
+/**
+ * Fetch one page of a keyset-paginated listing: { items, nextCursor, limit }.
+ * Pass nextCursor as `after` to get the next page; it is null on the last page.
+ */
+async function fetchItems(url, after = 0, limit = PAGE_SIZE) {
+    const response = await axios.get(url, { params: { after, limit } });
+    return response.data;
+}
+
 const api = {
     /**
      * Start a new crawl session
@@ -71,12 +82,11 @@ const api = {
     },
 
     /**
-     * Get discovered pages
+     * Get a page of discovered pages
      */
-    async getPages(sessionId) {
+    async getPages(sessionId, after = 0) {
         try {
-            const response = await axios.get(`${API_BASE_URL}/crawler/${sessionId}/pages`);
-            return response.data;
+            return await fetchItems(`${API_BASE_URL}/crawler/${sessionId}/pages`, after);
         } catch (error) {
             console.error('Error getting pages:', error);
             throw error;
@@ -84,12 +94,11 @@ const api = {
     },
 
     /**
-     * Get navigation flows
+     * Get a page of navigation flows
      */
-    async getFlows(sessionId) {
+    async getFlows(sessionId, after = 0) {
         try {
-            const response = await axios.get(`${API_BASE_URL}/crawler/${sessionId}/flows`);
-            return response.data;
+            return await fetchItems(`${API_BASE_URL}/crawler/${sessionId}/flows`, after);
         } catch (error) {
             console.error('Error getting flows:', error);
             throw error;
@@ -97,12 +106,11 @@ const api = {
     },
 
     /**
-     * Get extracted data
+     * Get a page of extracted data
      */
-    async getExtractedData(sessionId) {
+    async getExtractedData(sessionId, after = 0) {
         try {
-            const response = await axios.get(`${API_BASE_URL}/crawler/${sessionId}/extracted`);
-            return response.data;
+            return await fetchItems(`${API_BASE_URL}/crawler/${sessionId}/extracted`, after);
         } catch (error) {
             console.error('Error getting extracted data:', error);
             throw error;
@@ -110,12 +118,11 @@ const api = {
     },
 
     /**
-     * Get downloaded files
+     * Get a page of downloaded files
      */
-    async getDownloadedFiles(sessionId) {
+    async getDownloadedFiles(sessionId, after = 0) {
         try {
-            const response = await axios.get(`${API_BASE_URL}/crawler/${sessionId}/downloads`);
-            return response.data;
+            return await fetchItems(`${API_BASE_URL}/crawler/${sessionId}/downloads`, after);
         } catch (error) {
             console.error('Error getting downloaded files:', error);
             throw error;
@@ -123,18 +130,34 @@ const api = {
     },
 
     /**
-     * Export crawl results
+     * Export crawl results. Submits an export job and polls until it finishes.
      */
-    async exportResults(sessionId, exportConfig) {
+    async exportResults(sessionId, exportConfig, pollIntervalMs = 1000) {
         try {
             const response = await axios.post(`${API_BASE_URL}/crawler/${sessionId}/export`, exportConfig);
-            return response.data;
+            let job = response.data;
+            while (job.status === 'QUEUED' || job.status === 'RUNNING') {
+                await new Promise(resolve => setTimeout(resolve, pollIntervalMs));
+                job = (await axios.get(`${API_BASE_URL}/crawler/${sessionId}/export/${job.jobId}`)).data;
+            }
+            if (job.status === 'FAILED') {
+                throw new Error(job.error);
+            }
+            return job;
         } catch (error) {
             console.error('Error exporting results:', error);
             throw error;
         }
     },
 
+    /**
+     * Download URL of a finished export job; without a format the whole export is zipped
+     */
+    getExportDownloadUrl(sessionId, jobId, format) {
+        const query = format ? `?format=${format}` : '';
+        return `${API_BASE_URL}/crawler/${sessionId}/export/${jobId}/download${query}`;
+    },
+
     /**
      * Import browser cookies
      */
@@ -0,0 +1,22 @@
+package com.jcrawler.controller;
+
+import com.jcrawler.dto.BrowserPoolHealth;
+import com.jcrawler.engine.BrowserPool;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/browser")
+@RequiredArgsConstructor
+public class BrowserController {
+
+    private final BrowserPool browserPool;
+
+    @GetMapping("/health")
+    public ResponseEntity<BrowserPoolHealth> getHealth() {
+        BrowserPoolHealth health = browserPool.getHealth();
+        return ResponseEntity.status(health.getReady() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(health);
+    }
+}
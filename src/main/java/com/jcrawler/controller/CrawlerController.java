@@ -1,23 +1,34 @@
 package com.jcrawler.controller;
 
+import com.jcrawler.dto.ChangeReport;
 import com.jcrawler.dto.CrawlRequest;
 import com.jcrawler.dto.CrawlResponse;
+import com.jcrawler.dto.CursorPage;
+import com.jcrawler.dto.ExportJob;
 import com.jcrawler.dto.ExportRequest;
 import com.jcrawler.model.*;
 import com.jcrawler.repository.*;
 import com.jcrawler.service.CrawlerService;
 import com.jcrawler.service.DownloadService;
-import com.jcrawler.service.ExportService;
-import com.jcrawler.service.ExtractionService;
+import com.jcrawler.service.ExportJobService;
+import com.jcrawler.service.FlowPathStore;
+import com.jcrawler.service.PageDetailAssembler;
+import com.jcrawler.service.SessionDataStreamer;
+import com.jcrawler.service.UrlDictionary;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
@@ -28,16 +39,22 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class CrawlerController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int DEFAULT_PAGE_LIMIT = 500;
+    private static final int MAX_PAGE_LIMIT = 5000;
+
     private final CrawlerService crawlerService;
-    private final ExportService exportService;
-    private final ExtractionService extractionService;
+    private final ExportJobService exportJobService;
     private final DownloadService downloadService;
+    private final FlowPathStore flowPathStore;
+    private final PageDetailAssembler pageDetailAssembler;
+    private final SessionDataStreamer sessionDataStreamer;
+    private final UrlDictionary urlDictionary;
     private final PageRepository pageRepository;
     private final NavigationFlowRepository flowRepository;
     private final ExtractedDataRepository extractedDataRepository;
     private final DownloadedFileRepository downloadedFileRepository;
     private final ExternalUrlRepository externalUrlRepository;
-    private final InternalLinkRepository internalLinkRepository;
 
     @PostMapping("/start")
     public ResponseEntity<CrawlResponse> startCrawl(@Valid @RequestBody CrawlRequest request) {
@@ -69,81 +86,166 @@ public class CrawlerController {
         return ResponseEntity.ok(response);
     }
 
-    @GetMapping("/{id}/pages")
-    public ResponseEntity<List<Page>> getPages(@PathVariable Long id) {
-        List<Page> pages = pageRepository.findBySessionId(id);
-        List<ExternalUrl> externalUrls = externalUrlRepository.findBySessionId(id);
-        List<DownloadedFile> downloadedFiles = downloadedFileRepository.findBySessionId(id);
-
-        // Populate structured data for each page
-        for (Page page : pages) {
-            // Child pages - use discovered internal links
-            List<Page.ChildPage> childPages = new java.util.ArrayList<>();
-            List<InternalLink> discoveredLinks = internalLinkRepository.findBySessionIdAndFoundOnPage(id, page.getUrl());
-            for (InternalLink link : discoveredLinks) {
-                childPages.add(new Page.ChildPage(link.getUrl()));
-            }
-            page.setChildPages(childPages);
-
-            // External URLs
-            List<Page.ExternalUrlInfo> urls = new java.util.ArrayList<>();
-            for (ExternalUrl externalUrl : externalUrls) {
-                if (externalUrl.getFoundOnPage() != null && externalUrl.getFoundOnPage().equals(page.getUrl())) {
-                    urls.add(new Page.ExternalUrlInfo(externalUrl.getUrl()));
-                }
-            }
-            page.setUrls(urls);
-
-            // Downloaded files
-            List<Page.DownloadInfo> downloads = new java.util.ArrayList<>();
-            for (DownloadedFile file : downloadedFiles) {
-                if (file.getPageId() != null && file.getPageId().equals(page.getId())) {
-                    downloads.add(new Page.DownloadInfo(file.getFileName() != null ? file.getFileName() : file.getUrl()));
-                }
-            }
-            page.setDownloads(downloads);
+    @GetMapping("/{id}/changes")
+    public ResponseEntity<ChangeReport> getChanges(@PathVariable Long id,
+                                                   @RequestParam(defaultValue = "" + DEFAULT_PAGE_LIMIT) Integer limit) {
+        try {
+            return ResponseEntity.ok(crawlerService.getChangeReport(id, clampLimit(limit)));
+        } catch (IllegalArgumentException e) {
+            // Unknown session, or a full crawl without a base session
+            return ResponseEntity.notFound().build();
         }
+    }
+
+    @GetMapping("/{id}/pages")
+    public ResponseEntity<CursorPage<Page>> getPages(@PathVariable Long id,
+                                                     @RequestParam(defaultValue = "0") Long after,
+                                                     @RequestParam(defaultValue = "" + DEFAULT_PAGE_LIMIT) Integer limit) {
+        int size = clampLimit(limit);
+        List<Page> pages = pageRepository.findBySessionIdAndIdGreaterThanOrderByIdAsc(id, after, PageRequest.of(0, size));
+        pageDetailAssembler.assemble(id, pages);
+        return ResponseEntity.ok(CursorPage.of(pages, size, Page::getId));
+    }
 
-        return ResponseEntity.ok(pages);
+    @GetMapping(value = "/{id}/pages/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamPages(@PathVariable Long id) {
+        return ndjson(out -> sessionDataStreamer.writeNdjson(out,
+                () -> pageRepository.streamBySessionId(id),
+                batch -> pageDetailAssembler.assemble(id, batch)));
     }
 
     @GetMapping("/{id}/flows")
-    public ResponseEntity<List<NavigationFlow>> getFlows(@PathVariable Long id) {
-        List<NavigationFlow> flows = flowRepository.findBySessionId(id);
-        return ResponseEntity.ok(flows);
+    public ResponseEntity<CursorPage<NavigationFlow>> getFlows(@PathVariable Long id,
+                                                               @RequestParam(defaultValue = "0") Long after,
+                                                               @RequestParam(defaultValue = "" + DEFAULT_PAGE_LIMIT) Integer limit) {
+        int size = clampLimit(limit);
+        List<NavigationFlow> flows = flowRepository.findBySessionIdAndIdGreaterThanOrderByIdAsc(id, after, PageRequest.of(0, size));
+        flowPathStore.resolvePaths(id, flows);
+        return ResponseEntity.ok(CursorPage.of(flows, size, NavigationFlow::getId));
+    }
+
+    @GetMapping(value = "/{id}/flows/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamFlows(@PathVariable Long id) {
+        return ndjson(out -> sessionDataStreamer.writeNdjson(out,
+                () -> flowRepository.streamBySessionId(id),
+                batch -> flowPathStore.resolvePaths(id, batch)));
+    }
+
+    @GetMapping("/{id}/flows/through")
+    public ResponseEntity<CursorPage<NavigationFlow>> getFlowsThrough(@PathVariable Long id, @RequestParam String url,
+                                                                      @RequestParam(defaultValue = "0") Long after,
+                                                                      @RequestParam(defaultValue = "" + DEFAULT_PAGE_LIMIT) Integer limit) {
+        int size = clampLimit(limit);
+        List<NavigationFlow> flows = flowPathStore.findFlowsThrough(id, url, after, size);
+        return ResponseEntity.ok(CursorPage.of(flows, size, NavigationFlow::getId));
     }
 
     @GetMapping("/{id}/extracted")
-    public ResponseEntity<List<ExtractedData>> getExtractedData(@PathVariable Long id) {
-        List<ExtractedData> data = extractionService.getExtractedData(id);
-        return ResponseEntity.ok(data);
+    public ResponseEntity<CursorPage<ExtractedData>> getExtractedData(@PathVariable Long id,
+                                                                      @RequestParam(defaultValue = "0") Long after,
+                                                                      @RequestParam(defaultValue = "" + DEFAULT_PAGE_LIMIT) Integer limit) {
+        int size = clampLimit(limit);
+        List<ExtractedData> data = extractedDataRepository.findBySessionIdAndIdGreaterThanOrderByIdAsc(id, after, PageRequest.of(0, size));
+        return ResponseEntity.ok(CursorPage.of(data, size, ExtractedData::getId));
+    }
+
+    @GetMapping(value = "/{id}/extracted/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamExtractedData(@PathVariable Long id) {
+        return ndjson(out -> sessionDataStreamer.writeNdjson(out, () -> extractedDataRepository.streamBySessionId(id)));
     }
 
     @GetMapping("/{id}/downloads")
-    public ResponseEntity<List<DownloadedFile>> getDownloadedFiles(@PathVariable Long id) {
-        List<DownloadedFile> files = downloadService.getDownloadedFiles(id);
-        return ResponseEntity.ok(files);
+    public ResponseEntity<CursorPage<DownloadedFile>> getDownloadedFiles(@PathVariable Long id,
+                                                                         @RequestParam(defaultValue = "0") Long after,
+                                                                         @RequestParam(defaultValue = "" + DEFAULT_PAGE_LIMIT) Integer limit) {
+        int size = clampLimit(limit);
+        List<DownloadedFile> files = downloadedFileRepository.findBySessionIdAndIdGreaterThanOrderByIdAsc(id, after, PageRequest.of(0, size));
+        urlDictionary.resolveDownloadedFiles(files);
+        return ResponseEntity.ok(CursorPage.of(files, size, DownloadedFile::getId));
+    }
+
+    @GetMapping(value = "/{id}/downloads/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamDownloadedFiles(@PathVariable Long id) {
+        return ndjson(out -> sessionDataStreamer.writeNdjson(out,
+                () -> downloadedFileRepository.streamBySessionId(id),
+                urlDictionary::resolveDownloadedFiles));
     }
 
     @GetMapping("/{id}/external-urls")
-    public ResponseEntity<List<ExternalUrl>> getExternalUrls(@PathVariable Long id) {
-        List<ExternalUrl> urls = externalUrlRepository.findBySessionId(id);
-        return ResponseEntity.ok(urls);
+    public ResponseEntity<CursorPage<ExternalUrl>> getExternalUrls(@PathVariable Long id,
+                                                                   @RequestParam(defaultValue = "0") Long after,
+                                                                   @RequestParam(defaultValue = "" + DEFAULT_PAGE_LIMIT) Integer limit) {
+        int size = clampLimit(limit);
+        List<ExternalUrl> urls = externalUrlRepository.findBySessionIdAndIdGreaterThanOrderByIdAsc(id, after, PageRequest.of(0, size));
+        urlDictionary.resolveExternalUrls(urls);
+        return ResponseEntity.ok(CursorPage.of(urls, size, ExternalUrl::getId));
+    }
+
+    @GetMapping(value = "/{id}/external-urls/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamExternalUrls(@PathVariable Long id) {
+        return ndjson(out -> sessionDataStreamer.writeNdjson(out,
+                () -> externalUrlRepository.streamBySessionId(id),
+                urlDictionary::resolveExternalUrls));
     }
 
     @PostMapping("/{id}/export")
-    public ResponseEntity<Map<String, String>> export(@PathVariable Long id, @Valid @RequestBody ExportRequest request) {
+    public ResponseEntity<ExportJob> export(@PathVariable Long id, @Valid @RequestBody ExportRequest request) {
         try {
             request.setSessionId(id);
-            Map<String, String> exportedFiles = exportService.export(request);
-            return ResponseEntity.ok(exportedFiles);
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.out.println("EXPORT ERROR: " + e.getMessage());
-            return ResponseEntity.internalServerError().build();
+            return ResponseEntity.accepted().body(exportJobService.submit(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (TaskRejectedException e) {
+            // Too many exports queued
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         }
     }
 
+    @GetMapping("/{id}/export/{jobId}")
+    public ResponseEntity<ExportJob> getExportJob(@PathVariable Long id, @PathVariable String jobId) {
+        return exportJobService.getJob(jobId)
+                .filter(job -> job.getSessionId().equals(id))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Downloads a finished export: a single file as is, a directory (or the whole
+     * export when no format is given) as a zip archive.
+     */
+    @GetMapping("/{id}/export/{jobId}/download")
+    public ResponseEntity<StreamingResponseBody> downloadExport(@PathVariable Long id, @PathVariable String jobId,
+                                                                @RequestParam(required = false) ExportRequest.ExportFormat format) {
+        ExportJob job = exportJobService.getJob(jobId)
+                .filter(j -> j.getSessionId().equals(id))
+                .orElse(null);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (job.getStatus() != ExportJob.JobStatus.COMPLETED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+
+        String location = format != null ? job.getResult().getFiles().get(format.name()) : job.getResult().getDirectory();
+        if (location == null || !Files.exists(Paths.get(location))) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Path path = Paths.get(location);
+        if (Files.isRegularFile(path)) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + path.getFileName() + "\"")
+                    .body(out -> Files.copy(path, out));
+        }
+
+        String archiveName = "session_" + id + "_" + (format != null ? format.name().toLowerCase() : "export") + ".zip";
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + archiveName + "\"")
+                .body(out -> exportJobService.writeArchive(path, out));
+    }
+
     @GetMapping("/{sessionId}/download/{fileId}")
     public ResponseEntity<Resource> downloadFile(@PathVariable Long sessionId, @PathVariable Long fileId) {
         try {
@@ -169,4 +271,14 @@ public class CrawlerController {
             return ResponseEntity.internalServerError().build();
         }
     }
+
+    private int clampLimit(Integer limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_LIMIT));
+    }
+
+    private ResponseEntity<StreamingResponseBody> ndjson(StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
 }
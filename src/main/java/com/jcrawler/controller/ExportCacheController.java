@@ -0,0 +1,34 @@
+package com.jcrawler.controller;
+
+import com.jcrawler.dto.ExportCacheStats;
+import com.jcrawler.service.ExportCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/exports/cache")
+@RequiredArgsConstructor
+public class ExportCacheController {
+
+    private final ExportCacheService exportCacheService;
+
+    @GetMapping
+    public ResponseEntity<ExportCacheStats> getStats() {
+        return ResponseEntity.ok(exportCacheService.getStats());
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Map<String, Integer>> purge(@RequestParam(required = false) Long sessionId) {
+        return ResponseEntity.ok(Map.of("removed", exportCacheService.purge(sessionId)));
+    }
+
+    @DeleteMapping("/{key}")
+    public ResponseEntity<Void> purgeEntry(@PathVariable String key) {
+        return exportCacheService.purgeEntry(key)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
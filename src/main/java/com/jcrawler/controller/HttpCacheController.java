@@ -0,0 +1,26 @@
+package com.jcrawler.controller;
+
+import com.jcrawler.dto.HttpCacheStats;
+import com.jcrawler.engine.ResponseCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/http-cache")
+@RequiredArgsConstructor
+public class HttpCacheController {
+
+    private final ResponseCache responseCache;
+
+    @GetMapping
+    public ResponseEntity<HttpCacheStats> getStats() {
+        return ResponseEntity.ok(responseCache.getStats());
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> clear() {
+        responseCache.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
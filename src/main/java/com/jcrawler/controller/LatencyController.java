@@ -0,0 +1,20 @@
+package com.jcrawler.controller;
+
+import com.jcrawler.dto.LatencyStats;
+import com.jcrawler.engine.HostLatencyTracker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/latency")
+@RequiredArgsConstructor
+public class LatencyController {
+
+    private final HostLatencyTracker latencyTracker;
+
+    @GetMapping
+    public ResponseEntity<LatencyStats> getStats() {
+        return ResponseEntity.ok(latencyTracker.getStats());
+    }
+}
@@ -0,0 +1,41 @@
+package com.jcrawler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BrowserPoolHealth {
+
+    // At least one worker has a running browser
+    private Boolean ready;
+    private Integer poolSize;
+    private Integer readyWorkers;
+    private Integer queuedTasks;
+
+    // Since startup
+    private Long crashRestarts;
+    private Long recycles;
+
+    private List<WorkerHealth> workers;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WorkerHealth {
+        private String name;
+        private String state;
+        private LocalDateTime launchedAt;
+        private Long pagesSinceLaunch;
+        private Integer openContexts;
+        private String lastError;
+    }
+}
@@ -0,0 +1,32 @@
+package com.jcrawler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Pages of a refresh or incremental crawl compared with its base session.
+ * The URL lists hold at most the requested limit; the counts are complete.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeReport {
+
+    private Long sessionId;
+    private Long baseSessionId;
+
+    private Long added;
+    private Long modified;
+    private Long unchanged;
+    // In the base session but not reached by this crawl
+    private Long removed;
+
+    private List<String> addedUrls;
+    private List<String> modifiedUrls;
+    private List<String> removedUrls;
+}
@@ -1,5 +1,9 @@
 package com.jcrawler.dto;
 
+import com.jcrawler.engine.RenderReadiness;
+import com.jcrawler.engine.ResourceBlockingPolicy;
+import com.jcrawler.engine.UrlFilter;
+import com.jcrawler.model.CrawlSession;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -45,8 +49,23 @@ public class CrawlRequest {
     @Max(20)
     private Integer concurrentThreads = 5;
 
+    // Links with these extensions are recorded as attachments
     @Builder.Default
-    private List<String> allowedFileExtensions = List.of(".pdf", ".docx", ".doc", ".xlsx", ".xls", ".zip", ".png", ".jpg", ".jpeg");
+    private List<String> allowedFileExtensions = UrlFilter.DEFAULT_ATTACHMENT_EXTENSIONS;
+
+    // Which discovered links are queued (see UrlFilter): regular expressions found anywhere in the
+    // URL, path prefixes, and the number of query parameters (0 means any). Empty lists allow everything.
+    private List<String> includeUrlPatterns;
+
+    private List<String> excludeUrlPatterns;
+
+    private List<String> includePathPrefixes;
+
+    private List<String> excludePathPrefixes;
+
+    @Builder.Default
+    @Min(0)
+    private Integer maxQueryParameters = 0;
 
     @Builder.Default
     private Boolean downloadFiles = true;
@@ -54,6 +73,57 @@ public class CrawlRequest {
     @Builder.Default
     private Boolean enableJavaScript = false;
 
+    // STATIC, JAVASCRIPT or HYBRID; when not given, enableJavaScript picks JAVASCRIPT or STATIC
+    private CrawlSession.RenderMode renderMode;
+
+    // Pages whose text differs from an already crawled page in only a few words are saved with
+    // nearDuplicateOf pointing at that page, and their links are not followed. Off by default.
+    @Builder.Default
+    private Boolean skipNearDuplicates = false;
+
+    // URLs crawled per URL pattern (path with numbers abstracted, plus query keys), lowered to a tenth
+    // for patterns whose pages mostly lead to more of the same pattern, as calendars do. 0 turns trap detection off.
+    @Builder.Default
+    @Min(0)
+    private Integer urlPatternBudget = 1000;
+
+    // BFS (default), DFS or BEST_FIRST. Best-first crawls the URLs with the highest score first: the
+    // weight of the first urlPriorities pattern (regular expression) the URL matches, plus log2 of the
+    // pages linking to it, minus its depth, plus 2 if it was found on a new or changed page.
+    private CrawlSession.CrawlOrder crawlOrder;
+
+    private Map<String, Double> urlPriorities;
+
+    // FULL (default), REFRESH or INCREMENTAL. A refresh revalidates the pages of baseSessionId, or of
+    // the latest finished session with the same start URL, and reuses the results of pages that did not
+    // change. An incremental crawl compares content hashes with baseSessionId, or with the latest finished
+    // session of the same domain, and stores only pages that are new or changed in full.
+    private CrawlSession.CrawlMode crawlMode;
+
+    private Long baseSessionId;
+
+    // JavaScript rendering: Playwright resource types and URL patterns (* wildcard) to block.
+    // Empty lists load everything.
+    @Builder.Default
+    private List<String> blockedResourceTypes = ResourceBlockingPolicy.DEFAULT_BLOCKED_RESOURCE_TYPES;
+
+    @Builder.Default
+    private List<String> blockedUrlPatterns = ResourceBlockingPolicy.DEFAULT_BLOCKED_URL_PATTERNS;
+
+    // JavaScript rendering: a page is read once its DOM has been quiet for renderQuietMs,
+    // after renderReadySelector (optional) has appeared, and at most renderMaxWaitMs after load
+    private String renderReadySelector;
+
+    @Builder.Default
+    @Min(50)
+    @Max(10000)
+    private Integer renderQuietMs = RenderReadiness.DEFAULT_QUIET_MS;
+
+    @Builder.Default
+    @Min(0)
+    @Max(60000)
+    private Integer renderMaxWaitMs = RenderReadiness.DEFAULT_MAX_WAIT_MS;
+
     @Data
     @Builder
     @NoArgsConstructor
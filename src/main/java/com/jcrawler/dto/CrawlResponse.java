@@ -24,5 +24,6 @@ public class CrawlResponse {
     private Integer totalExtracted;
     private Integer totalDownloaded;
     private Integer totalExternalUrls;
+    private Integer fetchesAvoided;
     private String message;
 }
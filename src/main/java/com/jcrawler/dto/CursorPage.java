@@ -0,0 +1,27 @@
+package com.jcrawler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. Pass nextCursor back as the "after"
+ * parameter to fetch the following page; it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> items;
+    private Long nextCursor;
+    private Integer limit;
+
+    public static <T> CursorPage<T> of(List<T> items, int limit, Function<T, Long> idGetter) {
+        Long nextCursor = items.size() < limit ? null : idGetter.apply(items.get(items.size() - 1));
+        return new CursorPage<>(items, nextCursor, limit);
+    }
+}
@@ -0,0 +1,29 @@
+package com.jcrawler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A finished export kept in the export cache. Stored as cache-entry.json in
+ * the entry's directory, so the cache survives restarts.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportCacheEntry {
+
+    // SHA-256 of the session id, session version and normalized request
+    private String key;
+    private Long sessionId;
+    private String directory;
+    private Long sizeBytes;
+    private LocalDateTime createdAt;
+    private LocalDateTime lastAccessedAt;
+    private Long hits;
+    private ExportResponse result;
+}
@@ -0,0 +1,27 @@
+package com.jcrawler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportCacheStats {
+
+    private Long maxBytes;
+    private Long totalBytes;
+    private Integer entryCount;
+
+    // Since startup
+    private Long hits;
+    private Long misses;
+    private Long evictions;
+
+    // Most recently used first
+    private List<ExportCacheEntry> entries;
+}
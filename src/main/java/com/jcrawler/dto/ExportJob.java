@@ -0,0 +1,36 @@
+package com.jcrawler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportJob {
+
+    private String jobId;
+    private Long sessionId;
+    private List<ExportRequest.ExportFormat> formats;
+    private LocalDateTime submittedAt;
+
+    // Updated by the export thread while the job runs
+    private volatile JobStatus status;
+    private volatile Long rowsExported;
+    private volatile Long totalRows;
+    private volatile LocalDateTime completedAt;
+    private volatile ExportResponse result;
+    private volatile String error;
+
+    public enum JobStatus {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,55 @@
+package com.jcrawler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of a session's incremental exports (manifest.json). Applying the
+ * deltas in sequence order gives the complete export; a page written again
+ * by a later delta, because links were added to it, replaces its earlier row.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportManifest {
+
+    private Long sessionId;
+    private LocalDateTime updatedAt;
+
+    @Builder.Default
+    private List<Delta> deltas = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Delta {
+        private Integer sequence;
+        // Relative to the manifest
+        private String directory;
+        private LocalDateTime exportedAt;
+        private List<ExportRequest.ExportFormat> formats;
+        private Long rows;
+        // Table -> id range of the rows in this delta; only tables the export included
+        private Map<String, IdRange> tables;
+    }
+
+    /**
+     * Rows with afterId < id <= lastId.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class IdRange {
+        private Long afterId;
+        private Long lastId;
+    }
+}
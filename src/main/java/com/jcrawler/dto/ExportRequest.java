@@ -32,8 +32,17 @@ public class ExportRequest {
     @Builder.Default
     private Boolean includeDownloadedFiles = true;
 
+    // Gzip-compress CSV and JSON Lines output
+    @Builder.Default
+    private Boolean gzip = false;
+
+    // Export only rows added since the session's last incremental export, as a new delta
+    @Builder.Default
+    private Boolean incremental = false;
+
     public enum ExportFormat {
         CSV,
+        JSONL,
         EXCEL,
         PDF
     }
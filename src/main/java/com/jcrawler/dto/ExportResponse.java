@@ -0,0 +1,34 @@
+package com.jcrawler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportResponse {
+
+    // Directory holding all files of this export
+    private String directory;
+
+    // Incremental exports only: manifest of the session's deltas and the sequence of this one
+    private String manifest;
+    private Integer deltaSequence;
+
+    // Served from the export cache instead of being written for this request
+    @Builder.Default
+    private Boolean cached = false;
+
+    // Export format -> written file or directory
+    private Map<String, String> files;
+
+    // Rows read from the database and handed to the streaming writers
+    private Long rowsExported;
+    private Long durationMs;
+    private Double rowsPerSecond;
+}
@@ -0,0 +1,30 @@
+package com.jcrawler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HttpCacheStats {
+
+    private Boolean enabled;
+    private Long entries;
+    private Long sizeBytes;
+    private Long maxBytes;
+
+    // Since startup
+    private Long hits;
+    private Long misses;
+    private Double hitRatio;
+    private Long evictions;
+
+    // OkHttp disk tier, null fields when disabled
+    private Boolean diskEnabled;
+    private Long diskSizeBytes;
+    private Long diskHits;
+    private Long diskRequests;
+}
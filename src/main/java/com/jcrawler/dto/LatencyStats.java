@@ -0,0 +1,46 @@
+package com.jcrawler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatencyStats {
+
+    private Boolean hedgingEnabled;
+
+    // Since startup
+    private Long requests;
+    private Long hedges;
+    // Extra requests sent as hedges, per request
+    private Double extraRequestRatio;
+
+    private List<HostStats> hosts;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HostStats {
+        private String host;
+        private Long samples;
+
+        // Time to response headers over recent fetches, including the effect of hedging
+        private Long p50Ms;
+        private Long p95Ms;
+        private Long p99Ms;
+        private Long maxMs;
+
+        // Fetches cut off by the adaptive timeout
+        private Long timeouts;
+        private Long hedges;
+        // Hedged requests that answered first
+        private Long hedgeWins;
+    }
+}
@@ -27,8 +27,10 @@ public class ProgressUpdate {
         EXTERNAL_URL_FOUND,
         METRICS,
         LOG,
+        URL_PATTERN_THROTTLED,
         CRAWL_COMPLETED,
-        CRAWL_ERROR
+        CRAWL_ERROR,
+        EXPORT_PROGRESS
     }
 
     public static ProgressUpdate pageDiscovered(Long sessionId, String url, Integer depth, Integer totalPages) {
@@ -83,7 +85,8 @@ public class ProgressUpdate {
                 .build();
     }
 
-    public static ProgressUpdate metrics(Long sessionId, Double pagesPerSecond, Integer activeThreads, Integer queueSize) {
+    public static ProgressUpdate metrics(Long sessionId, Double pagesPerSecond, Integer activeThreads, Integer queueSize,
+                                         Integer fetchesAvoided) {
         return ProgressUpdate.builder()
                 .type(ProgressType.METRICS)
                 .sessionId(sessionId)
@@ -91,7 +94,8 @@ public class ProgressUpdate {
                 .data(Map.of(
                         "pagesPerSecond", pagesPerSecond,
                         "activeThreads", activeThreads,
-                        "queueSize", queueSize
+                        "queueSize", queueSize,
+                        "fetchesAvoided", fetchesAvoided
                 ))
                 .build();
     }
@@ -119,4 +123,30 @@ public class ProgressUpdate {
                 ))
                 .build();
     }
+
+    public static ProgressUpdate urlPatternThrottled(Long sessionId, String pattern, String reason) {
+        return ProgressUpdate.builder()
+                .type(ProgressType.URL_PATTERN_THROTTLED)
+                .sessionId(sessionId)
+                .timestamp(LocalDateTime.now())
+                .data(Map.of(
+                        "pattern", pattern,
+                        "reason", reason
+                ))
+                .build();
+    }
+
+    public static ProgressUpdate exportProgress(Long sessionId, String jobId, String status, Long rowsExported, Long totalRows) {
+        return ProgressUpdate.builder()
+                .type(ProgressType.EXPORT_PROGRESS)
+                .sessionId(sessionId)
+                .timestamp(LocalDateTime.now())
+                .data(Map.of(
+                        "jobId", jobId,
+                        "status", status,
+                        "rowsExported", rowsExported,
+                        "totalRows", totalRows
+                ))
+                .build();
+    }
 }
@@ -0,0 +1,71 @@
+package com.jcrawler.engine;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Looks at a statically fetched page for signs that its content is rendered
+ * client-side: an empty root container of a JavaScript framework, a
+ * "please enable JavaScript" notice, or almost no links and text next to a
+ * lot of script.
+ */
+public final class AppShellDetector {
+
+    private static final List<String> ROOT_SELECTORS = List.of(
+            "#root", "#app", "#__next", "#__nuxt", "#___gatsby", "[data-reactroot]", "app-root", "[ng-app]", "[ng-version]");
+
+    private static final int FEW_LINKS = 3;
+    private static final int LITTLE_TEXT = 200;
+    // Inline and external script characters per character of visible text
+    private static final int SCRIPT_HEAVY_RATIO = 5;
+
+    private AppShellDetector() {
+    }
+
+    /**
+     * Returns why the page looks like an app shell, or null if it looks like
+     * regular server-rendered HTML.
+     */
+    public static String detect(Document document) {
+        Element body = document.body();
+        if (body == null) {
+            return "no body";
+        }
+
+        for (String selector : ROOT_SELECTORS) {
+            Element root = document.selectFirst(selector);
+            if (root != null && root.children().isEmpty() && root.text().isBlank()) {
+                return "empty root " + selector;
+            }
+        }
+
+        int links = document.select("a[href]").size();
+        if (links >= FEW_LINKS) {
+            return null;
+        }
+
+        for (Element noscript : document.select("noscript")) {
+            if (noscript.text().toLowerCase(Locale.ROOT).contains("javascript")) {
+                return "noscript notice";
+            }
+        }
+
+        int textLength = body.text().length();
+        if (textLength < LITTLE_TEXT) {
+            Elements scripts = document.select("script");
+            int scriptWeight = 0;
+            for (Element script : scripts) {
+                // An external script counts as much as a short paragraph
+                scriptWeight += script.hasAttr("src") ? 100 : script.data().length();
+            }
+            if (scriptWeight > Math.max(textLength, 1) * SCRIPT_HEAVY_RATIO) {
+                return "script-heavy, " + links + " links";
+            }
+        }
+        return null;
+    }
+}
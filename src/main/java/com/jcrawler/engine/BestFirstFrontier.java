@@ -0,0 +1,113 @@
+package com.jcrawler.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Crawls the highest-scoring URL first, so that a limited page budget goes to
+ * the pages that matter most. A URL's score is
+ * <ul>
+ *   <li>the weight of the first URL priority pattern it matches (regular
+ *       expressions found anywhere in the URL; 0 when none matches),</li>
+ *   <li>plus log2 of the number of pages found linking to it so far,</li>
+ *   <li>minus its depth,</li>
+ *   <li>plus {@value #FRESHNESS_BOOST} when it was found on a page that is new
+ *       or changed since the base session.</li>
+ * </ul>
+ * Each time another page links to a URL it is queued again with its new
+ * score. Equal scores are crawled in the order they were found.
+ */
+public class BestFirstFrontier implements FrontierStrategy {
+
+    private static final double DEPTH_WEIGHT = 1.0;
+    private static final double IN_LINK_WEIGHT = 1.0;
+    private static final double FRESHNESS_BOOST = 2.0;
+
+    private final List<PriorityRule> rules = new ArrayList<>();
+    private final Map<String, AtomicInteger> inLinks = new ConcurrentHashMap<>();
+    private final PriorityBlockingQueue<ScoredUrl> queue = new PriorityBlockingQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * @param priorities regular expression to weight, checked in order; may be null
+     */
+    public BestFirstFrontier(Map<String, Double> priorities) {
+        if (priorities != null) {
+            priorities.forEach((regex, weight) -> {
+                if (!regex.isBlank() && weight != null) {
+                    rules.add(new PriorityRule(Pattern.compile(regex), weight));
+                }
+            });
+        }
+    }
+
+    @Override
+    public void add(UrlDepthPair url) {
+        int links = inLinks.computeIfAbsent(url.url, key -> new AtomicInteger()).incrementAndGet();
+        queue.add(new ScoredUrl(url, score(url, links), sequence.getAndIncrement()));
+    }
+
+    @Override
+    public UrlDepthPair poll() {
+        ScoredUrl next = queue.poll();
+        return next != null ? next.url : null;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    private double score(UrlDepthPair url, int links) {
+        double score = IN_LINK_WEIGHT * (Math.log(links) / Math.log(2)) - DEPTH_WEIGHT * url.depth;
+        if (url.foundOnChangedPage) {
+            score += FRESHNESS_BOOST;
+        }
+        for (PriorityRule rule : rules) {
+            if (rule.pattern.matcher(url.url).find()) {
+                score += rule.weight;
+                break;
+            }
+        }
+        return score;
+    }
+
+    private static class PriorityRule {
+        final Pattern pattern;
+        final double weight;
+
+        PriorityRule(Pattern pattern, double weight) {
+            this.pattern = pattern;
+            this.weight = weight;
+        }
+    }
+
+    private static class ScoredUrl implements Comparable<ScoredUrl> {
+        final UrlDepthPair url;
+        final double score;
+        final long sequence;
+
+        ScoredUrl(UrlDepthPair url, double score, long sequence) {
+            this.url = url;
+            this.score = score;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(ScoredUrl other) {
+            int byScore = Double.compare(other.score, score);
+            return byScore != 0 ? byScore : Long.compare(sequence, other.sequence);
+        }
+    }
+}
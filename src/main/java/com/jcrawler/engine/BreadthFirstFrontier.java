@@ -0,0 +1,32 @@
+package com.jcrawler.engine;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Crawls URLs in the order they were found, level by level.
+ */
+public class BreadthFirstFrontier implements FrontierStrategy {
+
+    private final Queue<UrlDepthPair> queue = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void add(UrlDepthPair url) {
+        queue.add(url);
+    }
+
+    @Override
+    public UrlDepthPair poll() {
+        return queue.poll();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+}
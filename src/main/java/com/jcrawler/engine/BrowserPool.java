@@ -0,0 +1,459 @@
+package com.jcrawler.engine;
+
+import com.jcrawler.dto.BrowserPoolHealth;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.options.Cookie;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Renders pages on a fixed set of worker threads. Playwright objects may only
+ * be used from the thread that created them, so every worker owns its own
+ * Playwright, Browser and browser contexts, and callers hand work to the
+ * workers through a shared queue.
+ * <p>
+ * A worker keeps one context per crawl session, so cookies and cache carry over
+ * between the session's pages, and closes it when the session ends or when it
+ * is the least recently used of more than {@code jcrawler.browser.contexts-per-worker}.
+ * <p>
+ * Browsers are launched by {@link #warmUp()} (at application start if
+ * {@code jcrawler.browser.warm-up-on-start} is set, otherwise when a crawl that
+ * renders JavaScript starts) or else on a worker's first task. Idle workers
+ * check their browser and relaunch it if it crashed; a page whose browser
+ * crashed while rendering is retried once on a fresh browser. Browsers are
+ * also replaced after {@code jcrawler.browser.recycle-after-pages} pages to
+ * bound the memory Chromium accumulates.
+ */
+@Component
+@Slf4j
+public class BrowserPool {
+
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) JCrawler/1.0 Playwright";
+    private static final long POLL_INTERVAL_MS = 1000;
+
+    private final int poolSize;
+    private final int contextsPerWorker;
+    private final int recycleAfterPages;
+    private final boolean warmUpOnStart;
+    private final BlockingQueue<RenderTask<?>> tasks = new LinkedBlockingQueue<>();
+    private final List<Worker> workers = new ArrayList<>();
+    private final AtomicLong crashRestarts = new AtomicLong();
+    private final AtomicLong recycles = new AtomicLong();
+    private volatile boolean running = true;
+
+    public BrowserPool(@Value("${jcrawler.browser.pool-size:0}") int configuredSize,
+                       @Value("${jcrawler.browser.memory-per-browser-mb:300}") long memoryPerBrowserMb,
+                       @Value("${jcrawler.browser.contexts-per-worker:4}") int contextsPerWorker,
+                       @Value("${jcrawler.browser.recycle-after-pages:500}") int recycleAfterPages,
+                       @Value("${jcrawler.browser.warm-up-on-start:false}") boolean warmUpOnStart) {
+        this.poolSize = poolSize(configuredSize, memoryPerBrowserMb);
+        this.contextsPerWorker = Math.max(1, contextsPerWorker);
+        this.recycleAfterPages = recycleAfterPages;
+        this.warmUpOnStart = warmUpOnStart;
+
+        for (int i = 0; i < poolSize; i++) {
+            Worker worker = new Worker("browser-worker-" + (i + 1));
+            Thread thread = new Thread(worker, worker.name);
+            thread.setDaemon(true);
+            worker.thread = thread;
+            workers.add(worker);
+            thread.start();
+        }
+        log.info("Browser pool started with {} workers", poolSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStart() {
+        if (warmUpOnStart) {
+            warmUp();
+        }
+    }
+
+    /**
+     * Asks every worker without a browser to launch one in the background.
+     */
+    public void warmUp() {
+        for (Worker worker : workers) {
+            worker.warmUpRequested = true;
+        }
+    }
+
+    /**
+     * Runs the work with the session's browser context on the next free
+     * worker and waits for its result.
+     *
+     * @param url     page being rendered; session cookies are set for this URL
+     *                when the session's context is created
+     */
+    public <T> T render(Long sessionId, Map<String, String> cookies, String url, Function<BrowserContext, T> work) throws Exception {
+        if (!running) {
+            throw new IllegalStateException("Browser pool is shut down");
+        }
+
+        RenderTask<T> task = new RenderTask<>(sessionId, cookies, url, work);
+        tasks.add(task);
+        try {
+            return task.result.get();
+        } catch (InterruptedException e) {
+            // Skipped by the workers if not yet started
+            task.result.cancel(false);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Closes the session's contexts on all workers.
+     */
+    public void releaseSession(Long sessionId) {
+        for (Worker worker : workers) {
+            worker.released.add(sessionId);
+        }
+    }
+
+    public BrowserPoolHealth getHealth() {
+        List<BrowserPoolHealth.WorkerHealth> workerHealth = new ArrayList<>();
+        int readyWorkers = 0;
+        for (Worker worker : workers) {
+            WorkerState state = worker.state;
+            if (state == WorkerState.READY || state == WorkerState.BUSY) {
+                readyWorkers++;
+            }
+            workerHealth.add(BrowserPoolHealth.WorkerHealth.builder()
+                    .name(worker.name)
+                    .state(state.name())
+                    .launchedAt(worker.launchedAt)
+                    .pagesSinceLaunch(worker.pagesSinceLaunch)
+                    .openContexts(worker.openContexts)
+                    .lastError(worker.lastError)
+                    .build());
+        }
+        return BrowserPoolHealth.builder()
+                .ready(readyWorkers > 0)
+                .poolSize(poolSize)
+                .readyWorkers(readyWorkers)
+                .queuedTasks(tasks.size())
+                .crashRestarts(crashRestarts.get())
+                .recycles(recycles.get())
+                .workers(workerHealth)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        for (Worker worker : workers) {
+            worker.thread.interrupt();
+        }
+        for (Worker worker : workers) {
+            try {
+                worker.thread.join(10000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        RenderTask<?> task;
+        while ((task = tasks.poll()) != null) {
+            task.result.completeExceptionally(new IllegalStateException("Browser pool is shut down"));
+        }
+    }
+
+    /**
+     * The configured size, or one worker per core; either way no more browsers
+     * than fit in the free physical memory.
+     */
+    private static int poolSize(int configuredSize, long memoryPerBrowserMb) {
+        int size = configuredSize > 0 ? configuredSize : Runtime.getRuntime().availableProcessors();
+
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            long freeMb = os.getFreeMemorySize() / (1024 * 1024);
+            int memoryLimit = (int) Math.max(1, freeMb / Math.max(1, memoryPerBrowserMb));
+            if (memoryLimit < size) {
+                log.info("Limiting browser pool to {} workers for {} MB of free memory", memoryLimit, freeMb);
+                size = memoryLimit;
+            }
+        }
+        return Math.max(1, size);
+    }
+
+    private enum WorkerState {
+        NOT_STARTED,
+        STARTING,
+        READY,
+        BUSY,
+        FAILED
+    }
+
+    private static class RenderTask<T> {
+        final Long sessionId;
+        final Map<String, String> cookies;
+        final String url;
+        final Function<BrowserContext, T> work;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+
+        RenderTask(Long sessionId, Map<String, String> cookies, String url, Function<BrowserContext, T> work) {
+            this.sessionId = sessionId;
+            this.cookies = cookies;
+            this.url = url;
+            this.work = work;
+        }
+    }
+
+    private class Worker implements Runnable {
+
+        final String name;
+        // Sessions whose contexts this worker should close
+        final Queue<Long> released = new ConcurrentLinkedQueue<>();
+        // Access order: iteration starts with the least recently used context
+        final Map<Long, BrowserContext> contexts = new LinkedHashMap<>(16, 0.75f, true);
+
+        Thread thread;
+        Playwright playwright;
+        Browser browser;
+        // Set by the browser's disconnected event
+        boolean crashed;
+
+        // Read by getHealth()
+        volatile boolean warmUpRequested;
+        volatile WorkerState state = WorkerState.NOT_STARTED;
+        volatile LocalDateTime launchedAt;
+        volatile long pagesSinceLaunch;
+        volatile int openContexts;
+        volatile String lastError;
+
+        Worker(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    closeReleasedContexts();
+                    maintainBrowser();
+
+                    RenderTask<?> task;
+                    try {
+                        task = tasks.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                    if (task == null || task.result.isDone()) {
+                        continue;
+                    }
+                    execute(task);
+                }
+            } finally {
+                closeBrowser();
+            }
+        }
+
+        /**
+         * Between tasks: launches a requested browser, replaces a crashed one
+         * and recycles one that has rendered enough pages.
+         */
+        private void maintainBrowser() {
+            if (browser != null && !isHealthy()) {
+                log.warn("Browser on {} crashed, relaunching", name);
+                crashRestarts.incrementAndGet();
+                closeBrowser();
+                tryLaunch();
+            } else if (browser != null && recycleAfterPages > 0 && pagesSinceLaunch >= recycleAfterPages) {
+                log.info("Recycling browser on {} after {} pages", name, pagesSinceLaunch);
+                recycles.incrementAndGet();
+                closeBrowser();
+                tryLaunch();
+            } else if (browser == null && warmUpRequested) {
+                tryLaunch();
+            }
+            warmUpRequested = false;
+        }
+
+        private <T> void execute(RenderTask<T> task) {
+            for (int attempt = 1; ; attempt++) {
+                BrowserContext context;
+                try {
+                    context = contextFor(task);
+                } catch (Exception e) {
+                    log.error("Failed to start browser on {}", name, e);
+                    lastError = e.getMessage();
+                    closeBrowser();
+                    state = WorkerState.FAILED;
+                    task.result.completeExceptionally(e);
+                    return;
+                }
+
+                state = WorkerState.BUSY;
+                T value = null;
+                Throwable error = null;
+                try {
+                    value = task.work.apply(context);
+                } catch (Throwable e) {
+                    error = e;
+                }
+                pagesSinceLaunch++;
+
+                if (!isHealthy() && attempt == 1) {
+                    // The page failed because the browser went away, not because of the page
+                    log.warn("Browser on {} crashed while rendering {}, retrying on a new browser", name, task.url);
+                    crashRestarts.incrementAndGet();
+                    closeBrowser();
+                    continue;
+                }
+
+                state = isHealthy() ? WorkerState.READY : WorkerState.NOT_STARTED;
+                if (error != null) {
+                    task.result.completeExceptionally(error);
+                } else {
+                    task.result.complete(value);
+                }
+                return;
+            }
+        }
+
+        private boolean isHealthy() {
+            return browser != null && !crashed && browser.isConnected();
+        }
+
+        private BrowserContext contextFor(RenderTask<?> task) {
+            if (!isHealthy()) {
+                if (browser != null) {
+                    log.warn("Browser on {} disconnected, relaunching", name);
+                    crashRestarts.incrementAndGet();
+                    closeBrowser();
+                }
+                launch();
+            }
+
+            BrowserContext context = contexts.get(task.sessionId);
+            if (context != null) {
+                return context;
+            }
+
+            context = browser.newContext(new Browser.NewContextOptions().setUserAgent(USER_AGENT));
+            if (task.cookies != null && !task.cookies.isEmpty()) {
+                List<Cookie> cookies = new ArrayList<>();
+                task.cookies.forEach((name, value) -> cookies.add(new Cookie(name, value).setUrl(task.url)));
+                context.addCookies(cookies);
+            }
+            contexts.put(task.sessionId, context);
+
+            // Recycle the least recently used contexts beyond the limit
+            Iterator<Map.Entry<Long, BrowserContext>> it = contexts.entrySet().iterator();
+            while (contexts.size() > contextsPerWorker && it.hasNext()) {
+                Map.Entry<Long, BrowserContext> eldest = it.next();
+                if (!eldest.getKey().equals(task.sessionId)) {
+                    it.remove();
+                    closeQuietly(eldest.getValue());
+                }
+            }
+            openContexts = contexts.size();
+            return context;
+        }
+
+        private void tryLaunch() {
+            try {
+                launch();
+            } catch (Exception e) {
+                log.error("Failed to launch browser on {}", name, e);
+                lastError = e.getMessage();
+                closeBrowser();
+                state = WorkerState.FAILED;
+            }
+        }
+
+        private void launch() {
+            log.info("Launching browser on {}", name);
+            state = WorkerState.STARTING;
+            playwright = Playwright.create();
+            browser = playwright.chromium().launch(new BrowserType.LaunchOptions()
+                    .setHeadless(true)
+                    .setArgs(List.of("--no-sandbox", "--disable-dev-shm-usage")));
+            crashed = false;
+            browser.onDisconnected(b -> crashed = true);
+            launchedAt = LocalDateTime.now();
+            pagesSinceLaunch = 0;
+            lastError = null;
+            state = WorkerState.READY;
+        }
+
+        private void closeReleasedContexts() {
+            Long sessionId;
+            while ((sessionId = released.poll()) != null) {
+                BrowserContext context = contexts.remove(sessionId);
+                if (context != null) {
+                    closeQuietly(context);
+                }
+            }
+            openContexts = contexts.size();
+        }
+
+        private void closeBrowser() {
+            // A crashed browser's contexts are already gone
+            if (isHealthy()) {
+                contexts.values().forEach(this::closeQuietly);
+            }
+            contexts.clear();
+            openContexts = 0;
+            try {
+                if (browser != null) {
+                    browser.close();
+                }
+            } catch (Exception e) {
+                log.warn("Error closing browser: {}", e.getMessage());
+            }
+            try {
+                if (playwright != null) {
+                    // Also ends the driver process and any browser process left behind
+                    playwright.close();
+                }
+            } catch (Exception e) {
+                log.warn("Error closing Playwright: {}", e.getMessage());
+            }
+            browser = null;
+            playwright = null;
+            launchedAt = null;
+            if (state != WorkerState.FAILED) {
+                state = WorkerState.NOT_STARTED;
+            }
+        }
+
+        private void closeQuietly(BrowserContext context) {
+            try {
+                context.close();
+            } catch (Exception e) {
+                log.warn("Error closing browser context: {}", e.getMessage());
+            }
+        }
+    }
+}
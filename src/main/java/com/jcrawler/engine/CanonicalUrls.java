@@ -0,0 +1,127 @@
+package com.jcrawler.engine;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the canonical URLs ({@code <link rel="canonical">}) of the pages a
+ * crawl has fetched, so that URLs known to show the same content are skipped
+ * before they are fetched.
+ * <p>
+ * A URL is skipped when a fetched page declared it as canonical, or when it
+ * only differs from a fetched page's canonical URL in query parameters that
+ * the site's canonical tags drop. Such parameters (tracking, session and
+ * sort keys) are learned per URL pattern once {@value #MIN_OBSERVATIONS}
+ * pages have dropped them.
+ */
+public class CanonicalUrls {
+
+    private static final int MIN_OBSERVATIONS = 2;
+
+    // Canonical forms of the fetched pages
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+    // URL pattern -> query key -> pages whose canonical URL dropped the key
+    private final Map<String, Map<String, AtomicInteger>> droppedKeys = new ConcurrentHashMap<>();
+    private final Set<String> avoided = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Whether an unvisited URL shows the same content as a page already fetched.
+     */
+    public boolean isKnownDuplicate(String url) {
+        if (seen.contains(strip(url))) {
+            avoided.add(url);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records a fetched page and its canonical URL, if it declared one.
+     *
+     * @return whether an earlier page already had the same canonical URL
+     */
+    public boolean record(String url, String canonicalUrl) {
+        if (canonicalUrl != null && !canonicalUrl.equals(url)) {
+            learn(url, canonicalUrl);
+        }
+        String canonical = strip(canonicalUrl != null ? canonicalUrl : url);
+        boolean duplicate = !seen.add(canonical);
+        seen.add(strip(url));
+        return duplicate;
+    }
+
+    public int getFetchesAvoided() {
+        return avoided.size();
+    }
+
+    /**
+     * The URL without the query parameters learned to be ignorable for its pattern.
+     */
+    String strip(String url) {
+        int queryStart = url.indexOf('?');
+        if (queryStart < 0) {
+            return url;
+        }
+        Map<String, AtomicInteger> dropped = droppedKeys.get(UrlPatterns.of(url));
+        if (dropped == null) {
+            return url;
+        }
+
+        StringBuilder query = new StringBuilder();
+        for (String parameter : url.substring(queryStart + 1).split("&")) {
+            AtomicInteger observations = dropped.get(key(parameter));
+            if (observations != null && observations.get() >= MIN_OBSERVATIONS) {
+                continue;
+            }
+            query.append(query.length() == 0 ? "?" : "&").append(parameter);
+        }
+        return url.substring(0, queryStart) + query;
+    }
+
+    /**
+     * Counts the query keys the canonical URL drops, if it is the same page
+     * (same scheme, host and path) as the URL.
+     */
+    private void learn(String url, String canonicalUrl) {
+        int queryStart = url.indexOf('?');
+        if (queryStart < 0) {
+            return;
+        }
+        int canonicalQueryStart = canonicalUrl.indexOf('?');
+        String canonicalBase = canonicalQueryStart < 0 ? canonicalUrl : canonicalUrl.substring(0, canonicalQueryStart);
+        if (!url.substring(0, queryStart).equals(canonicalBase)) {
+            return;
+        }
+
+        Set<String> canonicalKeys = new HashSet<>();
+        if (canonicalQueryStart >= 0) {
+            for (String parameter : canonicalUrl.substring(canonicalQueryStart + 1).split("&")) {
+                canonicalKeys.add(key(parameter));
+            }
+        }
+
+        Set<String> keys = new HashSet<>();
+        for (String parameter : url.substring(queryStart + 1).split("&")) {
+            String key = key(parameter);
+            if (!key.isEmpty() && !canonicalKeys.contains(key)) {
+                keys.add(key);
+            }
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        Map<String, AtomicInteger> dropped = droppedKeys.computeIfAbsent(UrlPatterns.of(url), pattern -> new ConcurrentHashMap<>());
+        for (String key : keys) {
+            dropped.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    private static String key(String parameter) {
+        int equals = parameter.indexOf('=');
+        return equals < 0 ? parameter : parameter.substring(0, equals);
+    }
+}
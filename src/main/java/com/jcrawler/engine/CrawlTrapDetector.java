@@ -0,0 +1,199 @@
+package com.jcrawler.engine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Keeps infinite URL spaces such as calendars, recursive paths and ever-changing
+ * query strings from using up a crawl.
+ * <p>
+ * URLs are grouped by pattern: the {@link UrlPatterns} path pattern plus the
+ * set of query keys. Each pattern may be crawled up to the session's budget of
+ * URLs. Once {@value #MIN_PAGES_FOR_YIELD} pages of a pattern have been crawled,
+ * a pattern that keeps generating itself gets a tenth of the budget: its pages
+ * lead to at least {@value #MIN_SELF_YIELD} new URLs of the same pattern but
+ * fewer than {@value #MIN_OUTSIDE_YIELD} of other patterns per page, like a
+ * calendar whose pages only link to more dates. Leaf pages that lead nowhere
+ * new keep the full budget. A URL whose path has a segment, or a group of
+ * segments, more than {@value #MAX_SEGMENT_REPEATS} times in a row is skipped,
+ * as recursive relative links produce; other URLs of its pattern still are
+ * crawled. A budget of 0 turns the detector off.
+ */
+public class CrawlTrapDetector {
+
+    private static final int MAX_SEGMENT_REPEATS = 3;
+    private static final int MIN_PAGES_FOR_YIELD = 20;
+    private static final double MIN_SELF_YIELD = 0.5;
+    private static final double MIN_OUTSIDE_YIELD = 0.5;
+    private static final int LOW_YIELD_BUDGET_DIVISOR = 10;
+    private static final int MIN_BUDGET = MIN_PAGES_FOR_YIELD;
+
+    private final int budget;
+    // Called once per pattern with the pattern and the reason it was throttled
+    private final BiConsumer<String, String> onThrottled;
+    private final Map<String, PatternStats> patterns = new ConcurrentHashMap<>();
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * @param budget URLs crawled per pattern; 0 to admit every URL
+     */
+    public CrawlTrapDetector(int budget, BiConsumer<String, String> onThrottled) {
+        this.budget = budget;
+        this.onThrottled = onThrottled;
+    }
+
+    public static String patternOf(String url) {
+        String pattern = UrlPatterns.of(url);
+        int queryStart = url.indexOf('?');
+        if (queryStart < 0) {
+            return pattern;
+        }
+        TreeSet<String> keys = new TreeSet<>();
+        for (String parameter : url.substring(queryStart + 1).split("&")) {
+            int equals = parameter.indexOf('=');
+            keys.add(equals < 0 ? parameter : parameter.substring(0, equals));
+        }
+        return pattern + "?" + String.join("&", keys);
+    }
+
+    /**
+     * Decides whether a URL about to be crawled may be, counting it against its pattern's budget.
+     */
+    public boolean admit(String url) {
+        if (budget <= 0) {
+            return true;
+        }
+        if (hasRepeatingSegments(url)) {
+            rejected.incrementAndGet();
+            return false;
+        }
+
+        String pattern = patternOf(url);
+        PatternStats stats = patterns.computeIfAbsent(pattern, key -> new PatternStats());
+
+        String reason = null;
+        synchronized (stats) {
+            if (!stats.throttled) {
+                int limit = limit(stats);
+                if (stats.admitted < limit) {
+                    stats.admitted++;
+                    return true;
+                }
+                reason = limit < budget
+                        ? stats.pages + " pages led to " + stats.newLinksSame + " new URLs of the same pattern and "
+                                + stats.newLinksElsewhere + " of other patterns, budget lowered to " + limit + " URLs"
+                        : "budget of " + budget + " URLs reached";
+                stats.throttled = true;
+            }
+        }
+
+        rejected.incrementAndGet();
+        if (reason != null) {
+            onThrottled.accept(pattern, reason);
+        }
+        return false;
+    }
+
+    /**
+     * Whether URLs of this URL's pattern are no longer crawled, so it need not be queued.
+     */
+    public boolean isThrottled(String url) {
+        PatternStats stats = patterns.get(patternOf(url));
+        if (stats == null) {
+            return false;
+        }
+        synchronized (stats) {
+            return stats.throttled;
+        }
+    }
+
+    /**
+     * Records the links a crawled page led to that had not been seen before.
+     */
+    public void recordYield(String pageUrl, Collection<String> newLinks) {
+        if (budget <= 0) {
+            return;
+        }
+        String pattern = patternOf(pageUrl);
+        int same = 0;
+        for (String link : newLinks) {
+            if (patternOf(link).equals(pattern)) {
+                same++;
+            }
+        }
+
+        PatternStats stats = patterns.computeIfAbsent(pattern, key -> new PatternStats());
+        synchronized (stats) {
+            stats.pages++;
+            stats.newLinksSame += same;
+            stats.newLinksElsewhere += newLinks.size() - same;
+        }
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getThrottledPatterns() {
+        return patterns.values().stream().filter(stats -> {
+            synchronized (stats) {
+                return stats.throttled;
+            }
+        }).count();
+    }
+
+    private int limit(PatternStats stats) {
+        if (stats.pages >= MIN_PAGES_FOR_YIELD
+                && stats.newLinksSame >= MIN_SELF_YIELD * stats.pages
+                && stats.newLinksElsewhere < MIN_OUTSIDE_YIELD * stats.pages) {
+            return Math.max(MIN_BUDGET, budget / LOW_YIELD_BUDGET_DIVISOR);
+        }
+        return budget;
+    }
+
+    /**
+     * Whether the path has a segment or a group of segments more than
+     * {@value #MAX_SEGMENT_REPEATS} times in a row, as in {@code /a/b/a/b/a/b/a/b}.
+     */
+    private static boolean hasRepeatingSegments(String url) {
+        int schemeEnd = url.indexOf("://");
+        int pathStart = url.indexOf('/', schemeEnd < 0 ? 0 : schemeEnd + 3);
+        if (pathStart < 0) {
+            return false;
+        }
+        int queryStart = url.indexOf('?', pathStart);
+        String path = queryStart < 0 ? url.substring(pathStart) : url.substring(pathStart, queryStart);
+
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        for (int group = 1; group * (MAX_SEGMENT_REPEATS + 1) <= segments.size(); group++) {
+            // Segments equal to the one a group earlier, in a row
+            int run = 0;
+            for (int i = group; i < segments.size(); i++) {
+                run = segments.get(i).equals(segments.get(i - group)) ? run + 1 : 0;
+                if (run >= group * MAX_SEGMENT_REPEATS) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static class PatternStats {
+        int admitted;
+        int pages;
+        int newLinksSame;
+        int newLinksElsewhere;
+        boolean throttled;
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.stereotype.Component;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
 @Component
 @Slf4j
@@ -19,22 +20,31 @@ public class CrawlerEngine {
     private final PageProcessor pageProcessor;
     private final JavaScriptPageProcessor jsPageProcessor;
     private final LinkExtractor linkExtractor;
+    private final HostCircuitBreaker circuitBreaker;
     private final SimpMessagingTemplate messagingTemplate;
 
     // Track running crawls
     private final Map<Long, CrawlContext> activeCrawls = new ConcurrentHashMap<>();
 
-    public CrawlerEngine(PageProcessor pageProcessor, JavaScriptPageProcessor jsPageProcessor, LinkExtractor linkExtractor, SimpMessagingTemplate messagingTemplate) {
+    public CrawlerEngine(PageProcessor pageProcessor, JavaScriptPageProcessor jsPageProcessor, LinkExtractor linkExtractor,
+                         HostCircuitBreaker circuitBreaker, SimpMessagingTemplate messagingTemplate) {
         this.pageProcessor = pageProcessor;
         this.jsPageProcessor = jsPageProcessor;
         this.linkExtractor = linkExtractor;
+        this.circuitBreaker = circuitBreaker;
         this.messagingTemplate = messagingTemplate;
     }
 
     public void startCrawl(CrawlSession session, CrawlCallback callback) {
-        CrawlContext context = new CrawlContext(session);
+        CrawlContext context = new CrawlContext(session,
+                (pattern, reason) -> sendPatternThrottled(session.getId(), pattern, reason));
         activeCrawls.put(session.getId(), context);
 
+        // Hybrid crawls launch browsers only once a page needs one
+        if (context.renderMode == CrawlSession.RenderMode.JAVASCRIPT) {
+            jsPageProcessor.warmUp();
+        }
+
         ExecutorService executorService = Executors.newFixedThreadPool(session.getConcurrentThreads());
 
         // Start crawl in separate thread
@@ -47,6 +57,25 @@ public class CrawlerEngine {
             } finally {
                 executorService.shutdown();
                 activeCrawls.remove(session.getId());
+                if (context.renderMode != CrawlSession.RenderMode.STATIC) {
+                    jsPageProcessor.releaseSession(session.getId());
+                }
+                if (context.renderMode == CrawlSession.RenderMode.HYBRID) {
+                    log.info("Hybrid crawl {} skipped {} static attempts for URL patterns that need JavaScript",
+                            session.getId(), context.renderModeSelector.getStaticAttemptsSkipped());
+                }
+                if (context.nearDuplicates != null) {
+                    log.info("Crawl {} did not follow the links of {} near-duplicate pages",
+                            session.getId(), context.nearDuplicates.getPruned());
+                }
+                if (context.droppedUrls.get() > 0) {
+                    log.info("Crawl {} dropped {} URLs of hosts that did not recover",
+                            session.getId(), context.droppedUrls.get());
+                }
+                if (context.trapDetector.getThrottledPatterns() > 0) {
+                    log.info("Crawl {} throttled {} URL patterns and skipped {} of their URLs",
+                            session.getId(), context.trapDetector.getThrottledPatterns(), context.trapDetector.getRejected());
+                }
             }
         });
     }
@@ -57,11 +86,12 @@ public class CrawlerEngine {
         String baseDomain = session.getBaseDomain();
 
         context.toVisit.add(new UrlDepthPair(startUrl, 0, null));
+        context.discoveredUrls.add(startUrl);
 
         long lastMetricsUpdate = System.currentTimeMillis();
         int lastPageCount = 0;
 
-        while ((context.activeTasks.get() > 0 || !context.toVisit.isEmpty()) &&
+        while ((context.activeTasks.get() > 0 || !context.toVisit.isEmpty() || !context.deferredUrls.isEmpty()) &&
                (session.getMaxPages() == 0 || context.visitedUrls.size() < session.getMaxPages())) {
             if (context.paused) {
                 Thread.sleep(1000);
@@ -72,10 +102,20 @@ public class CrawlerEngine {
                 break;
             }
 
+            if (context.activeTasks.get() >= session.getConcurrentThreads()) {
+                // URLs stay in the frontier until a worker is free, so its order decides what is crawled next
+                Thread.sleep(10);
+                continue;
+            }
+
+            if (!context.deferredUrls.isEmpty()) {
+                requeueRecoveredHosts(context);
+            }
+
             UrlDepthPair current = context.toVisit.poll();
             if (current == null) {
-                // No URLs in queue, but tasks may be running - wait a bit
-                if (context.activeTasks.get() > 0) {
+                // No URLs in queue, but tasks may be running or hosts recovering - wait a bit
+                if (context.activeTasks.get() > 0 || !context.deferredUrls.isEmpty()) {
                     Thread.sleep(100);
                 }
                 continue;
@@ -89,9 +129,32 @@ public class CrawlerEngine {
                 continue;
             }
 
-            // Check if URL is a file BEFORE adding to visitedUrls
-            if (isFileUrl(current.url)) {
-                log.debug("Skipping file URL (not a page): {}", current.url);
+            if (context.canonicalUrls.isKnownDuplicate(current.url)) {
+                log.debug("Skipping {}: same canonical URL as a page already crawled", current.url);
+                continue;
+            }
+
+            if (!current.admitted) {
+                if (!context.trapDetector.admit(current.url)) {
+                    log.debug("Skipping {}: URL pattern throttled as a likely crawl trap", current.url);
+                    continue;
+                }
+                current.admitted = true;
+            }
+
+            // Checked last: a probe slot must go to a URL that is then fetched
+            String host = HostCircuitBreaker.hostOf(current.url);
+            if (!circuitBreaker.tryAcquire(host)) {
+                if (context.abandonedHosts.contains(host)) {
+                    context.droppedUrls.incrementAndGet();
+                    continue;
+                }
+                // The host keeps failing: its URLs wait, leaving the workers to other hosts and sessions
+                Deque<UrlDepthPair> deferred = context.deferredUrls.computeIfAbsent(host, key -> new ArrayDeque<>());
+                if (deferred.isEmpty()) {
+                    sendLog(session.getId(), "WARN", "Host " + host + " keeps failing, its URLs wait until it recovers");
+                }
+                deferred.add(current);
                 continue;
             }
 
@@ -120,7 +183,8 @@ public class CrawlerEngine {
             if (now - lastMetricsUpdate > 5000) {
                 int currentPageCount = context.visitedUrls.size();
                 double pagesPerSecond = (currentPageCount - lastPageCount) / 5.0;
-                sendMetrics(session.getId(), pagesPerSecond, session.getConcurrentThreads(), context.toVisit.size());
+                sendMetrics(session.getId(), pagesPerSecond, session.getConcurrentThreads(), context.toVisit.size(),
+                        context.canonicalUrls.getFetchesAvoided());
                 lastMetricsUpdate = now;
                 lastPageCount = currentPageCount;
             }
@@ -130,36 +194,120 @@ public class CrawlerEngine {
         executor.shutdown();
         executor.awaitTermination(5, TimeUnit.MINUTES);
 
+        callback.onFetchesAvoided(context.canonicalUrls.getFetchesAvoided());
         callback.onComplete();
     }
 
+    /**
+     * Puts the URLs set aside for hosts whose circuit closed again back in the
+     * frontier, and one URL of each host that is due for a probe. The URLs of
+     * hosts the crawl gave up on are dropped.
+     */
+    private void requeueRecoveredHosts(CrawlContext context) {
+        Iterator<Map.Entry<String, Deque<UrlDepthPair>>> hosts = context.deferredUrls.entrySet().iterator();
+        while (hosts.hasNext()) {
+            Map.Entry<String, Deque<UrlDepthPair>> host = hosts.next();
+            if (context.abandonedHosts.contains(host.getKey())) {
+                context.droppedUrls.addAndGet(host.getValue().size());
+                hosts.remove();
+                sendLog(context.session.getId(), "WARN", "Host " + host.getKey() + " did not recover, dropped "
+                        + host.getValue().size() + " of its URLs");
+            } else if (circuitBreaker.isClosed(host.getKey())) {
+                host.getValue().forEach(context.toVisit::add);
+                hosts.remove();
+                sendLog(context.session.getId(), "INFO", "Host " + host.getKey() + " recovered, resuming its URLs");
+            } else if (!circuitBreaker.isOpen(host.getKey())) {
+                context.toVisit.add(host.getValue().poll());
+                if (host.getValue().isEmpty()) {
+                    hosts.remove();
+                }
+            }
+        }
+    }
+
     private void processSinglePage(CrawlContext context, UrlDepthPair urlPair, CrawlCallback callback) {
         CrawlSession session = context.session;
 
+        Page previous = context.crawlMode != CrawlSession.CrawlMode.FULL ? callback.findPreviousPage(urlPair.url) : null;
+
+        // Refresh crawls revalidate what the base session fetched statically
+        Page validators = context.crawlMode == CrawlSession.CrawlMode.REFRESH
+                && context.renderMode != CrawlSession.RenderMode.JAVASCRIPT
+                && previous != null && !Boolean.TRUE.equals(previous.getRenderedWithJavaScript()) ? previous : null;
+
         // Choose between static HTML or JavaScript rendering
-        PageProcessor.PageResult result;
-        if (session.getEnableJavaScript()) {
-            log.debug("Using JavaScript processor for URL: {}", urlPair.url);
-            result = jsPageProcessor.fetchAndParse(
-                    urlPair.url,
-                    session.getSessionCookies(),
-                    session.getId(),
-                    urlPair.parentUrl,
-                    urlPair.depth
-            );
-        } else {
-            log.debug("Using static HTML processor for URL: {}", urlPair.url);
-            result = pageProcessor.fetchAndParse(
-                    urlPair.url,
-                    session.getSessionCookies(),
-                    session.getId(),
-                    urlPair.parentUrl,
-                    urlPair.depth
-            );
+        PageProcessor.PageResult result = switch (context.renderMode) {
+            case JAVASCRIPT -> fetchWithJavaScript(context, urlPair);
+            case HYBRID -> fetchHybrid(context, urlPair, validators);
+            case STATIC -> fetchStatic(context, urlPair, validators);
+        };
+
+        if (result.hostUnavailable) {
+            String host = HostCircuitBreaker.hostOf(urlPair.url);
+            if (!circuitBreaker.isGivenUp(host)) {
+                // Queued again, to wait with the host's other URLs until its circuit closes
+                context.visitedUrls.remove(urlPair.url);
+                context.toVisit.add(urlPair);
+                return;
+            }
+            // The host stayed down through every probe: the page fails, and the crawl stops waiting for the host
+            context.abandonedHosts.add(host);
+            result.page.setErrorMessage("Host unavailable, circuit opened " + circuitBreaker.getOpenings(host)
+                    + " times" + (result.errorMessage != null ? ": " + result.errorMessage : ""));
+        }
+
+        if (context.crawlMode != CrawlSession.CrawlMode.FULL) {
+            result.page.setChangeStatus(changeStatus(result, previous));
+        }
+
+        if (result.document != null) {
+            String canonicalUrl = linkExtractor.extractCanonicalUrl(result.document, urlPair.url, session.getBaseDomain());
+            if (canonicalUrl != null && !canonicalUrl.equals(urlPair.url)) {
+                result.page.setCanonicalUrl(canonicalUrl);
+            }
+            if (context.canonicalUrls.record(urlPair.url, canonicalUrl)) {
+                // A variant of a page already crawled: saved for reference, its links are not followed
+                callback.onPageRecorded(result.page);
+                sendPageDiscovered(session.getId(), urlPair.url, urlPair.depth, context.visitedUrls.size());
+                return;
+            }
+        }
+
+        Long twin = context.nearDuplicates != null && result.simHash != null
+                ? context.nearDuplicates.findTwin(result.simHash) : null;
+        if (twin != null) {
+            // Nearly the same text as a page already crawled: its results are stored, but its links are not followed
+            result.page.setNearDuplicateOf(twin);
+        }
+
+        if (result.notModified) {
+            // Saves the page with the base session's links, attachments, external URLs and extracted data
+            List<String> links = callback.onPageNotModified(result.page, previous);
+            sendPageDiscovered(session.getId(), urlPair.url, urlPair.depth, context.visitedUrls.size());
+            if (twin == null) {
+                indexNearDuplicates(context, result);
+                followLinks(context, urlPair, result.page, links, callback);
+            }
+            return;
+        }
+
+        if (context.crawlMode == CrawlSession.CrawlMode.INCREMENTAL
+                && result.page.getChangeStatus() == Page.ChangeStatus.UNCHANGED && result.document != null) {
+            // Same content as in the base session: its links are followed, but no results are stored
+            callback.onPageRecorded(result.page);
+            sendPageDiscovered(session.getId(), urlPair.url, urlPair.depth, context.visitedUrls.size());
+            if (twin == null) {
+                indexNearDuplicates(context, result);
+                queueLinks(context, urlPair, result.page, linkExtractor.extractLinks(result.document, urlPair.url, session.getBaseDomain()));
+            }
+            return;
         }
 
         // Save page
         callback.onPageDiscovered(result.page);
+        if (twin == null) {
+            indexNearDuplicates(context, result);
+        }
 
         // Send progress update
         sendPageDiscovered(session.getId(), urlPair.url, urlPair.depth, context.visitedUrls.size());
@@ -169,23 +317,12 @@ public class CrawlerEngine {
             Set<String> links = linkExtractor.extractLinks(result.document, urlPair.url, session.getBaseDomain());
             for (String link : links) {
                 // Track ALL discovered internal links (but exclude file URLs)
-                if (!isFileUrl(link)) {
+                if (!context.urlFilter.isFile(link)) {
                     callback.onInternalLinkFound(link, urlPair.url);
                 }
-
-                if (!context.visitedUrls.contains(link)) {
-                    context.toVisit.add(new UrlDepthPair(link, urlPair.depth + 1, urlPair.url));
-
-                    // Track flow
-                    List<String> flowPath = new ArrayList<>();
-                    if (urlPair.parentUrl != null) {
-                        flowPath.add(urlPair.parentUrl);
-                    }
-                    flowPath.add(urlPair.url);
-                    flowPath.add(link);
-
-                    callback.onFlowDiscovered(flowPath, urlPair.depth + 1);
-                }
+            }
+            if (twin == null) {
+                followLinks(context, urlPair, result.page, links, callback);
             }
 
             // Extract attachment URLs
@@ -193,12 +330,7 @@ public class CrawlerEngine {
                     result.document,
                     urlPair.url,
                     session.getBaseDomain(),
-                    List.of(".pdf", ".docx", ".doc", ".xlsx", ".xls", ".ppt", ".pptx",
-                            ".zip", ".rar", ".7z", ".tar", ".gz",
-                            ".csv", ".txt", ".json", ".xml",
-                            ".png", ".jpg", ".jpeg", ".gif", ".svg", ".bmp", ".webp",
-                            ".odt", ".ods", ".odp", ".rtf",
-                            ".sql", ".log", ".md")
+                    context.urlFilter
             );
 
             for (String attachment : attachments) {
@@ -219,6 +351,121 @@ public class CrawlerEngine {
         }
     }
 
+    /**
+     * Adds a saved page whose links are followed to the near-duplicate index.
+     */
+    private static void indexNearDuplicates(CrawlContext context, PageProcessor.PageResult result) {
+        if (context.nearDuplicates != null && result.simHash != null && result.page.getId() != null) {
+            context.nearDuplicates.add(result.simHash, result.page.getId());
+        }
+    }
+
+    private static Page.ChangeStatus changeStatus(PageProcessor.PageResult result, Page previous) {
+        if (previous == null) {
+            return Page.ChangeStatus.ADDED;
+        }
+        if (result.notModified || (result.contentHash != null && result.contentHash.equals(previous.getContentHash()))) {
+            return Page.ChangeStatus.UNCHANGED;
+        }
+        return Page.ChangeStatus.MODIFIED;
+    }
+
+    /**
+     * Queues the page's links that were not visited yet and records the flows to them.
+     */
+    private void followLinks(CrawlContext context, UrlDepthPair urlPair, Page page, Collection<String> links,
+                             CrawlCallback callback) {
+        for (String link : queueLinks(context, urlPair, page, links)) {
+            // Track flow
+            List<String> flowPath = new ArrayList<>();
+            if (urlPair.parentUrl != null) {
+                flowPath.add(urlPair.parentUrl);
+            }
+            flowPath.add(urlPair.url);
+            flowPath.add(link);
+
+            callback.onFlowDiscovered(flowPath, urlPair.depth + 1);
+        }
+    }
+
+    /**
+     * Queues the page's links that were not visited yet and pass the session's URL
+     * filter, except those of throttled URL patterns, and records how many links
+     * the page led to that no other page had led to before.
+     *
+     * @return the queued links
+     */
+    private static List<String> queueLinks(CrawlContext context, UrlDepthPair urlPair, Page page, Collection<String> links) {
+        boolean changed = page.getChangeStatus() == Page.ChangeStatus.ADDED || page.getChangeStatus() == Page.ChangeStatus.MODIFIED;
+        List<String> newLinks = new ArrayList<>();
+        List<String> queued = new ArrayList<>();
+        for (String link : links) {
+            if (!context.visitedUrls.contains(link) && context.urlFilter.accepts(link)) {
+                // A URL already waiting in the frontier is not new, however many pages link to it
+                if (context.discoveredUrls.add(link)) {
+                    newLinks.add(link);
+                }
+                if (!context.trapDetector.isThrottled(link)) {
+                    context.toVisit.add(new UrlDepthPair(link, urlPair.depth + 1, urlPair.url, changed));
+                    queued.add(link);
+                }
+            }
+        }
+        context.trapDetector.recordYield(urlPair.url, newLinks);
+        return queued;
+    }
+
+    private PageProcessor.PageResult fetchStatic(CrawlContext context, UrlDepthPair urlPair, Page previous) {
+        log.debug("Using static HTML processor for URL: {}", urlPair.url);
+        return pageProcessor.fetchAndParse(
+                urlPair.url,
+                context.session.getSessionCookies(),
+                context.session.getId(),
+                urlPair.parentUrl,
+                urlPair.depth,
+                previous
+        );
+    }
+
+    private PageProcessor.PageResult fetchWithJavaScript(CrawlContext context, UrlDepthPair urlPair) {
+        log.debug("Using JavaScript processor for URL: {}", urlPair.url);
+        return jsPageProcessor.fetchAndParse(
+                urlPair.url,
+                context.session.getSessionCookies(),
+                context.session.getId(),
+                urlPair.parentUrl,
+                urlPair.depth,
+                context.blockingPolicy,
+                context.readiness
+        );
+    }
+
+    /**
+     * Fetches the page statically and renders it with JavaScript only if it
+     * looks like an app shell, or right away if pages of its URL pattern
+     * usually do.
+     */
+    private PageProcessor.PageResult fetchHybrid(CrawlContext context, UrlDepthPair urlPair, Page previous) {
+        if (context.renderModeSelector.shouldRenderDirectly(urlPair.url)) {
+            return fetchWithJavaScript(context, urlPair);
+        }
+
+        PageProcessor.PageResult result = fetchStatic(context, urlPair, previous);
+        if (!result.success || result.document == null) {
+            // Rendering would not fix an HTTP error, and an unchanged page keeps its results
+            return result;
+        }
+
+        String appShell = AppShellDetector.detect(result.document);
+        context.renderModeSelector.record(urlPair.url, appShell != null);
+        if (appShell == null) {
+            return result;
+        }
+
+        log.debug("Escalating {} to JavaScript rendering: {}", urlPair.url, appShell);
+        return fetchWithJavaScript(context, urlPair);
+    }
+
     public void pauseCrawl(Long sessionId) {
         CrawlContext context = activeCrawls.get(sessionId);
         if (context != null) {
@@ -249,58 +496,59 @@ public class CrawlerEngine {
         messagingTemplate.convertAndSend("/topic/crawler/" + sessionId + "/progress", update);
     }
 
-    private void sendMetrics(Long sessionId, Double pagesPerSecond, Integer activeThreads, Integer queueSize) {
-        ProgressUpdate update = ProgressUpdate.metrics(sessionId, pagesPerSecond, activeThreads, queueSize);
+    private void sendMetrics(Long sessionId, Double pagesPerSecond, Integer activeThreads, Integer queueSize, Integer fetchesAvoided) {
+        ProgressUpdate update = ProgressUpdate.metrics(sessionId, pagesPerSecond, activeThreads, queueSize, fetchesAvoided);
         messagingTemplate.convertAndSend("/topic/crawler/" + sessionId + "/progress", update);
     }
 
-    private void sendLog(Long sessionId, String level, String message) {
-        ProgressUpdate update = ProgressUpdate.log(sessionId, level, message);
+    private void sendPatternThrottled(Long sessionId, String pattern, String reason) {
+        ProgressUpdate update = ProgressUpdate.urlPatternThrottled(sessionId, pattern, reason);
         messagingTemplate.convertAndSend("/topic/crawler/" + sessionId + "/progress", update);
     }
 
-    private boolean isFileUrl(String url) {
-        // Check if URL ends with common file extensions that are not HTML pages
-        String[] fileExtensions = {
-            ".txt", ".xml", ".json", ".csv", ".pdf", ".doc", ".docx",
-            ".xls", ".xlsx", ".ppt", ".pptx", ".zip", ".rar", ".tar", ".gz",
-            ".jpg", ".jpeg", ".png", ".gif", ".svg", ".ico", ".webp",
-            ".mp3", ".mp4", ".avi", ".mov", ".wav", ".ogg",
-            ".css", ".js", ".woff", ".woff2", ".ttf", ".eot"
-        };
-
-        String lowerUrl = url.toLowerCase();
-        for (String ext : fileExtensions) {
-            if (lowerUrl.endsWith(ext)) {
-                return true;
-            }
-        }
-        return false;
+    private void sendLog(Long sessionId, String level, String message) {
+        ProgressUpdate update = ProgressUpdate.log(sessionId, level, message);
+        messagingTemplate.convertAndSend("/topic/crawler/" + sessionId + "/progress", update);
     }
 
     // Internal classes
     private static class CrawlContext {
         final CrawlSession session;
-        final Queue<UrlDepthPair> toVisit = new ConcurrentLinkedQueue<>();
+        final ResourceBlockingPolicy blockingPolicy;
+        final UrlFilter urlFilter;
+        final RenderReadiness readiness;
+        final CrawlSession.RenderMode renderMode;
+        final CrawlSession.CrawlMode crawlMode;
+        final RenderModeSelector renderModeSelector = new RenderModeSelector();
+        final CanonicalUrls canonicalUrls = new CanonicalUrls();
+        // Null when the session follows the links of near-duplicates
+        final NearDuplicateIndex nearDuplicates;
+        final CrawlTrapDetector trapDetector;
+        final FrontierStrategy toVisit;
         final Set<String> visitedUrls = ConcurrentHashMap.newKeySet();
+        // URLs found on any page so far, queued or not; the crawl trap detector's notion of a new link
+        final Set<String> discoveredUrls = ConcurrentHashMap.newKeySet();
+        // Host -> URLs set aside while the host's circuit is open; used by the crawl loop only
+        final Map<String, Deque<UrlDepthPair>> deferredUrls = new HashMap<>();
+        // Hosts that stayed down through every probe; their URLs are no longer crawled
+        final Set<String> abandonedHosts = ConcurrentHashMap.newKeySet();
+        final AtomicInteger droppedUrls = new AtomicInteger(0);
         final AtomicInteger activeTasks = new AtomicInteger(0);
         volatile boolean paused = false;
         volatile boolean stopped = false;
 
-        CrawlContext(CrawlSession session) {
+        CrawlContext(CrawlSession session, BiConsumer<String, String> onPatternThrottled) {
             this.session = session;
-        }
-    }
-
-    private static class UrlDepthPair {
-        final String url;
-        final int depth;
-        final String parentUrl;
-
-        UrlDepthPair(String url, int depth, String parentUrl) {
-            this.url = url;
-            this.depth = depth;
-            this.parentUrl = parentUrl;
+            this.blockingPolicy = ResourceBlockingPolicy.forSession(session);
+            this.urlFilter = UrlFilter.forSession(session);
+            this.toVisit = FrontierStrategy.forSession(session);
+            this.readiness = RenderReadiness.forSession(session);
+            this.renderMode = session.getRenderMode() != null ? session.getRenderMode()
+                    : Boolean.TRUE.equals(session.getEnableJavaScript()) ? CrawlSession.RenderMode.JAVASCRIPT : CrawlSession.RenderMode.STATIC;
+            this.crawlMode = session.getCrawlMode() != null ? session.getCrawlMode() : CrawlSession.CrawlMode.FULL;
+            this.nearDuplicates = Boolean.TRUE.equals(session.getSkipNearDuplicates()) ? new NearDuplicateIndex() : null;
+            this.trapDetector = new CrawlTrapDetector(
+                    session.getUrlPatternBudget() != null ? session.getUrlPatternBudget() : 0, onPatternThrottled);
         }
     }
 
@@ -311,6 +559,15 @@ public class CrawlerEngine {
         void onAttachmentFound(String url, Long pageId);
         void onExternalUrlFound(String url, String foundOnPage);
         void onInternalLinkFound(String url, String foundOnPage);
+        // Refresh and incremental crawls: the base session's page for the URL, or null
+        Page findPreviousPage(String url);
+        // Refresh crawls: saves a page the site reported unchanged and returns its internal links
+        List<String> onPageNotModified(Page page, Page previous);
+        // Saves a page without extracting data, for pages whose links and results are not stored:
+        // unchanged pages of incremental crawls and non-canonical variants
+        void onPageRecorded(Page page);
+        // URLs skipped before fetching because a crawled page had the same canonical URL
+        void onFetchesAvoided(int fetchesAvoided);
         void onComplete();
         void onError(Exception e);
     }
@@ -0,0 +1,33 @@
+package com.jcrawler.engine;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Crawls the most recently found URL first, following one branch of the site
+ * down before the next.
+ */
+public class DepthFirstFrontier implements FrontierStrategy {
+
+    private final Deque<UrlDepthPair> stack = new ConcurrentLinkedDeque<>();
+
+    @Override
+    public void add(UrlDepthPair url) {
+        stack.push(url);
+    }
+
+    @Override
+    public UrlDepthPair poll() {
+        return stack.poll();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return stack.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return stack.size();
+    }
+}
@@ -0,0 +1,38 @@
+package com.jcrawler.engine;
+
+import com.jcrawler.model.CrawlSession;
+
+/**
+ * The queue of URLs a crawl has yet to visit, deciding the order they are crawled in.
+ * Implementations are called from the crawl loop and all worker threads at once.
+ * <p>
+ * A URL may be added more than once, once for every page found linking to it;
+ * the crawl skips it when it comes up again after being visited.
+ */
+public interface FrontierStrategy {
+
+    void add(UrlDepthPair url);
+
+    /**
+     * The next URL to crawl, or null if the frontier is empty.
+     */
+    UrlDepthPair poll();
+
+    boolean isEmpty();
+
+    int size();
+
+    /**
+     * The frontier for the session's crawl order.
+     *
+     * @throws java.util.regex.PatternSyntaxException if a URL priority pattern is not a valid regular expression
+     */
+    static FrontierStrategy forSession(CrawlSession session) {
+        CrawlSession.CrawlOrder order = session.getCrawlOrder() != null ? session.getCrawlOrder() : CrawlSession.CrawlOrder.BFS;
+        return switch (order) {
+            case BFS -> new BreadthFirstFrontier();
+            case DFS -> new DepthFirstFrontier();
+            case BEST_FIRST -> new BestFirstFrontier(session.getUrlPriorities());
+        };
+    }
+}
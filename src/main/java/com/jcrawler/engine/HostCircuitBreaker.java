@@ -0,0 +1,185 @@
+package com.jcrawler.engine;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.HttpUrl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-host circuit breaker shared by all crawl sessions. After
+ * {@code failure-threshold} consecutive URLs of a host failed, retries
+ * included, its circuit opens: crawls set the host's URLs aside instead of
+ * tying up their workers on it. Once {@code open-seconds} have passed, a single
+ * URL is let through as a probe. If the probe succeeds the circuit closes,
+ * otherwise it opens again. After {@code max-openings} openings without a
+ * success in between, crawls give up on the host.
+ */
+@Component
+@Slf4j
+public class HostCircuitBreaker {
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final int maxOpenings;
+    private final Map<String, HostState> hosts = new ConcurrentHashMap<>();
+
+    public HostCircuitBreaker(@Value("${jcrawler.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                              @Value("${jcrawler.circuit-breaker.open-seconds:30}") long openSeconds,
+                              @Value("${jcrawler.circuit-breaker.max-openings:5}") int maxOpenings) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openSeconds * 1000;
+        this.maxOpenings = maxOpenings;
+    }
+
+    public static String hostOf(String url) {
+        HttpUrl httpUrl = HttpUrl.parse(url);
+        return httpUrl != null ? httpUrl.host() : url;
+    }
+
+    /**
+     * Whether a URL of the host may be fetched now. When the host is due for a
+     * probe, the first caller gets it and the URL it fetches is the probe.
+     */
+    public boolean tryAcquire(String host) {
+        HostState state = hosts.get(host);
+        if (state == null) {
+            return true;
+        }
+        synchronized (state) {
+            long now = System.currentTimeMillis();
+            if (state.openUntil == 0) {
+                return true;
+            }
+            if (now < state.openUntil) {
+                return false;
+            }
+            // Due for a probe; another one only if the last probe never reported back
+            if (state.probeStartedAt != 0 && now - state.probeStartedAt < openMillis) {
+                return false;
+            }
+            state.probeStartedAt = now;
+            return true;
+        }
+    }
+
+    public boolean isClosed(String host) {
+        HostState state = hosts.get(host);
+        if (state == null) {
+            return true;
+        }
+        synchronized (state) {
+            return state.openUntil == 0;
+        }
+    }
+
+    /**
+     * Whether the host's URLs should still wait: its circuit is open and it is
+     * not yet due for a probe, or a probe is under way.
+     */
+    public boolean isOpen(String host) {
+        HostState state = hosts.get(host);
+        if (state == null) {
+            return false;
+        }
+        synchronized (state) {
+            long now = System.currentTimeMillis();
+            return state.openUntil != 0 && (now < state.openUntil
+                    || state.probeStartedAt != 0 && now - state.probeStartedAt < openMillis);
+        }
+    }
+
+    /**
+     * Whether the host's circuit opened {@code max-openings} times in a row, so
+     * crawls should stop waiting for it.
+     */
+    public boolean isGivenUp(String host) {
+        HostState state = hosts.get(host);
+        if (state == null) {
+            return false;
+        }
+        synchronized (state) {
+            return maxOpenings > 0 && state.openings >= maxOpenings;
+        }
+    }
+
+    public int getOpenings(String host) {
+        HostState state = hosts.get(host);
+        if (state == null) {
+            return 0;
+        }
+        synchronized (state) {
+            return state.openings;
+        }
+    }
+
+    public void recordSuccess(String host) {
+        HostState state = hosts.get(host);
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            if (state.openUntil != 0) {
+                log.info("Host {} recovered, closing its circuit", host);
+            }
+            state.failures = 0;
+            state.openings = 0;
+            state.openUntil = 0;
+            state.probeStartedAt = 0;
+        }
+    }
+
+    /**
+     * Records a URL of the host that failed, after its retries.
+     */
+    public void recordFailure(String host) {
+        if (failureThreshold <= 0) {
+            return;
+        }
+        HostState state = hosts.computeIfAbsent(host, key -> new HostState());
+        synchronized (state) {
+            state.failures++;
+            if (state.probeStartedAt != 0 || (state.openUntil == 0 && state.failures >= failureThreshold)) {
+                open(host, state, openMillis);
+            }
+        }
+    }
+
+    /**
+     * Opens the host's circuit for at least the given time, as asked by a long Retry-After.
+     */
+    public void openFor(String host, long millis) {
+        if (failureThreshold <= 0) {
+            return;
+        }
+        HostState state = hosts.computeIfAbsent(host, key -> new HostState());
+        synchronized (state) {
+            open(host, state, millis);
+        }
+    }
+
+    private static void open(String host, HostState state, long millis) {
+        long until = System.currentTimeMillis() + millis;
+        if (state.openUntil == 0) {
+            log.warn("Host {} keeps failing, opening its circuit for {} s", host, millis / 1000);
+        }
+        if (state.openUntil == 0 || state.probeStartedAt != 0) {
+            state.openings++;
+        }
+        state.openUntil = Math.max(state.openUntil, until);
+        state.probeStartedAt = 0;
+    }
+
+    private static class HostState {
+        // Consecutive failed URLs
+        int failures;
+        // Times the circuit opened since the last success
+        int openings;
+        // 0 while the circuit is closed
+        long openUntil;
+        // 0 unless a probe is under way
+        long probeStartedAt;
+    }
+}
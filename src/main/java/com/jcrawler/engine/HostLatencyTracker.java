@@ -0,0 +1,221 @@
+package com.jcrawler.engine;
+
+import com.jcrawler.dto.LatencyStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks how long each host takes to answer (time to response headers),
+ * shared by all crawl sessions, and derives fetch timeouts and hedging delays
+ * from it.
+ * <p>
+ * Latencies go into a log-scale histogram per host (buckets 10% wide). Its
+ * counts are halved every {@value #DECAY_SAMPLES} samples, so the percentiles
+ * follow a host whose speed changes. Once a host has {@value #MIN_SAMPLES}
+ * samples, its timeout is p99 times {@code timeout-factor}, kept between
+ * {@code min-timeout-ms} and the caller's fixed timeout. A fetch cut off by its
+ * timeout counts as a sample of the timeout's length: the host took at least
+ * that long. If the host gets slower, these samples raise p99 and with it the
+ * timeout, instead of every fetch timing out. With hedging enabled,
+ * a fetch still unanswered after the host's p95 gets a second, identical
+ * request. Hedges are capped at {@code hedging.max-ratio} of all fetches.
+ */
+@Component
+public class HostLatencyTracker {
+
+    private static final int MIN_SAMPLES = 20;
+    private static final int DECAY_SAMPLES = 1000;
+    private static final double BUCKET_GROWTH = 1.1;
+    // Up to about 10 minutes
+    private static final int BUCKETS = 142;
+
+    private final double timeoutFactor;
+    private final long minTimeoutMs;
+    private final boolean hedgingEnabled;
+    private final double maxHedgeRatio;
+    private final Map<String, HostLatency> hosts = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+
+    public HostLatencyTracker(@Value("${jcrawler.latency.timeout-factor:3}") double timeoutFactor,
+                              @Value("${jcrawler.latency.min-timeout-ms:2000}") long minTimeoutMs,
+                              @Value("${jcrawler.latency.hedging.enabled:false}") boolean hedgingEnabled,
+                              @Value("${jcrawler.latency.hedging.max-ratio:0.05}") double maxHedgeRatio) {
+        this.timeoutFactor = timeoutFactor;
+        this.minTimeoutMs = minTimeoutMs;
+        this.hedgingEnabled = hedgingEnabled;
+        this.maxHedgeRatio = maxHedgeRatio;
+    }
+
+    /**
+     * Records the time a fetch took until its response headers arrived.
+     */
+    public void record(String host, long millis) {
+        requests.incrementAndGet();
+        HostLatency latency = host(host);
+        synchronized (latency) {
+            latency.add(millis);
+        }
+    }
+
+    /**
+     * Records a fetch cut off by its timeout, as a sample of at least the timeout's length.
+     */
+    public void recordTimeout(String host, long timeoutMillis) {
+        requests.incrementAndGet();
+        HostLatency latency = host(host);
+        synchronized (latency) {
+            latency.add(timeoutMillis);
+            latency.timeouts++;
+        }
+    }
+
+    /**
+     * The connect and read timeout for the host's next fetch.
+     *
+     * @param defaultMillis the fixed timeout, used until the host has enough samples and as the upper limit
+     */
+    public long timeoutMillis(String host, long defaultMillis) {
+        HostLatency latency = hosts.get(host);
+        if (latency == null) {
+            return defaultMillis;
+        }
+        synchronized (latency) {
+            if (latency.total < MIN_SAMPLES) {
+                return defaultMillis;
+            }
+            long timeout = (long) (latency.percentile(0.99) * timeoutFactor);
+            return Math.min(defaultMillis, Math.max(minTimeoutMs, timeout));
+        }
+    }
+
+    /**
+     * How long to wait for the host before sending a hedged request, or null not to hedge.
+     */
+    public Long hedgeDelayMillis(String host) {
+        if (!hedgingEnabled) {
+            return null;
+        }
+        HostLatency latency = hosts.get(host);
+        if (latency == null) {
+            return null;
+        }
+        synchronized (latency) {
+            return latency.total < MIN_SAMPLES ? null : latency.percentile(0.95);
+        }
+    }
+
+    /**
+     * Takes a hedge from the budget, if it allows one more.
+     */
+    public boolean tryHedge(String host) {
+        if (hedges.get() + 1 > maxHedgeRatio * requests.get()) {
+            return false;
+        }
+        hedges.incrementAndGet();
+        HostLatency latency = host(host);
+        synchronized (latency) {
+            latency.hedges++;
+        }
+        return true;
+    }
+
+    /**
+     * Records that a hedged request answered before the request it backed up.
+     */
+    public void recordHedgeWin(String host) {
+        HostLatency latency = host(host);
+        synchronized (latency) {
+            latency.hedgeWins++;
+        }
+    }
+
+    public LatencyStats getStats() {
+        List<LatencyStats.HostStats> hostStats = hosts.entrySet().stream()
+                .map(entry -> {
+                    HostLatency latency = entry.getValue();
+                    synchronized (latency) {
+                        return LatencyStats.HostStats.builder()
+                                .host(entry.getKey())
+                                .samples(latency.samples)
+                                .p50Ms(latency.total > 0 ? latency.percentile(0.5) : null)
+                                .p95Ms(latency.total > 0 ? latency.percentile(0.95) : null)
+                                .p99Ms(latency.total > 0 ? latency.percentile(0.99) : null)
+                                .maxMs(latency.max)
+                                .timeouts(latency.timeouts)
+                                .hedges(latency.hedges)
+                                .hedgeWins(latency.hedgeWins)
+                                .build();
+                    }
+                })
+                .sorted(Comparator.comparing(LatencyStats.HostStats::getSamples).reversed())
+                .toList();
+
+        long requestCount = requests.get();
+        return LatencyStats.builder()
+                .hedgingEnabled(hedgingEnabled)
+                .requests(requestCount)
+                .hedges(hedges.get())
+                .extraRequestRatio(requestCount > 0 ? (double) hedges.get() / requestCount : 0.0)
+                .hosts(hostStats)
+                .build();
+    }
+
+    private HostLatency host(String host) {
+        return hosts.computeIfAbsent(host, key -> new HostLatency());
+    }
+
+    private static class HostLatency {
+        final int[] buckets = new int[BUCKETS];
+        // Samples in the buckets, reduced by decay
+        int total;
+        // Since startup
+        long samples;
+        long max;
+        long timeouts;
+        long hedges;
+        long hedgeWins;
+
+        void add(long millis) {
+            if (total >= DECAY_SAMPLES) {
+                total = 0;
+                for (int i = 0; i < BUCKETS; i++) {
+                    buckets[i] /= 2;
+                    total += buckets[i];
+                }
+            }
+            buckets[bucket(millis)]++;
+            total++;
+            samples++;
+            max = Math.max(max, millis);
+        }
+
+        /**
+         * Upper bound of the bucket holding the percentile.
+         */
+        long percentile(double p) {
+            long target = (long) Math.ceil(p * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets[i];
+                if (seen >= target && seen > 0) {
+                    return (long) Math.ceil(Math.pow(BUCKET_GROWTH, i + 1));
+                }
+            }
+            return (long) Math.ceil(Math.pow(BUCKET_GROWTH, BUCKETS));
+        }
+
+        static int bucket(long millis) {
+            if (millis <= 1) {
+                return 0;
+            }
+            return (int) Math.min(BUCKETS - 1, Math.floor(Math.log(millis) / Math.log(BUCKET_GROWTH)));
+        }
+    }
+}
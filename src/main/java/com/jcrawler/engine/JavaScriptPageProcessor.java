@@ -1,9 +1,11 @@
 package com.jcrawler.engine;
 
 import com.jcrawler.model.Page;
-import com.microsoft.playwright.*;
-import com.microsoft.playwright.options.Cookie;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Response;
 import com.microsoft.playwright.options.WaitUntilState;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
@@ -13,65 +15,118 @@ import java.security.MessageDigest;
 import java.time.LocalDateTime;
 import java.util.Map;
 
+/**
+ * Fetches pages with a headless browser so that client-side rendered content
+ * is included. Rendering runs on the {@link BrowserPool}, so as many pages are
+ * rendered at once as the pool has workers.
+ */
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class JavaScriptPageProcessor {
 
-    private Playwright playwright;
-    private Browser browser;
-    private BrowserContext sharedContext;
+    private final BrowserPool browserPool;
 
-    public JavaScriptPageProcessor() {
-        // Initialize Playwright lazily
-    }
+    public PageProcessor.PageResult fetchAndParse(String url, Map<String, String> cookies, Long sessionId, String parentUrl, Integer depth,
+                                                  ResourceBlockingPolicy blockingPolicy, RenderReadiness readiness) {
+        long startTime = System.currentTimeMillis();
+        PageProcessor.PageResult result;
 
-    private synchronized void initPlaywright() {
-        if (playwright == null) {
-            log.info("Initializing Playwright...");
-            playwright = Playwright.create();
-            browser = playwright.chromium().launch(new BrowserType.LaunchOptions()
-                    .setHeadless(true)
-                    .setArgs(java.util.Arrays.asList("--no-sandbox", "--disable-dev-shm-usage")));
+        try {
+            // A fresh result per attempt, as the pool retries pages whose browser crashed
+            result = browserPool.render(sessionId, cookies, url, context -> render(context, url, blockingPolicy, readiness));
+        } catch (InterruptedException e) {
+            result = new PageProcessor.PageResult();
+            Thread.currentThread().interrupt();
+            result.success = false;
+            result.errorMessage = "Interrupted";
+        } catch (Exception e) {
+            log.error("Failed to fetch URL with Playwright: {}", url, e);
+            result = new PageProcessor.PageResult();
+            result.success = false;
+            result.errorMessage = e.getMessage();
+        }
 
-            // Create a shared context for all pages
-            sharedContext = browser.newContext(new Browser.NewContextOptions()
-                    .setUserAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) JCrawler/1.0 Playwright"));
+        long endTime = System.currentTimeMillis();
+        result.processingTime = endTime - startTime;
 
-            log.info("Playwright initialized successfully");
-        }
-    }
+        // Build Page entity
+        result.page = Page.builder()
+                .sessionId(sessionId)
+                .url(url)
+                .parentUrl(parentUrl)
+                .depthLevel(depth)
+                .statusCode(result.statusCode)
+                .title(result.title)
+                .contentHash(result.contentHash)
+                .visitedAt(LocalDateTime.now())
+                .processingTimeMs(result.processingTime)
+                .errorMessage(result.errorMessage)
+                .processed(result.success)
+                .blockedRequests(result.blockedRequests)
+                .transferredBytes(result.transferredBytes)
+                .renderWaitMs(result.renderWaitMs)
+                .renderedWithJavaScript(true)
+                .simHash(result.simHash)
+                .build();
 
-    public synchronized PageProcessor.PageResult fetchAndParse(String url, Map<String, String> cookies, Long sessionId, String parentUrl, Integer depth) {
-        if (playwright == null) {
-            initPlaywright();
-        }
+        return result;
+    }
 
-        long startTime = System.currentTimeMillis();
+    /**
+     * Runs on a browser pool worker.
+     */
+    private PageProcessor.PageResult render(BrowserContext context, String url, ResourceBlockingPolicy blockingPolicy,
+                                            RenderReadiness readiness) {
         PageProcessor.PageResult result = new PageProcessor.PageResult();
-
         com.microsoft.playwright.Page page = null;
+        // Handlers run on this worker thread
+        int[] blocked = {0};
+        long[] transferred = {0};
 
         try {
-            // Create new page in shared context
-            page = sharedContext.newPage();
+            page = context.newPage();
+
+            if (!blockingPolicy.isEmpty()) {
+                page.route("**/*", route -> {
+                    Request request = route.request();
+                    if (blockingPolicy.blocks(request.resourceType(), request.url())) {
+                        blocked[0]++;
+                        route.abort("blockedbyclient");
+                    } else {
+                        route.resume();
+                    }
+                });
+            }
+            page.onResponse(response -> {
+                String contentLength = response.headers().get("content-length");
+                if (contentLength != null) {
+                    try {
+                        transferred[0] += Long.parseLong(contentLength.trim());
+                    } catch (NumberFormatException e) {
+                        // Ignore malformed header
+                    }
+                }
+            });
 
-            // Navigate to URL and wait for network idle
+            // Long-polling and beacons can keep the network busy, so readiness is judged from the DOM
             Response response = page.navigate(url, new com.microsoft.playwright.Page.NavigateOptions()
-                    .setWaitUntil(WaitUntilState.NETWORKIDLE)
+                    .setWaitUntil(WaitUntilState.LOAD)
                     .setTimeout(30000));
 
             result.statusCode = response.status();
             result.success = response.ok();
 
             if (response.ok()) {
-                // Wait a bit for React to render
-                page.waitForTimeout(1000);
+                // Wait for client-side rendering to settle
+                result.renderWaitMs = readiness.await(page);
 
                 // Get the fully rendered HTML
                 String html = page.content();
                 result.document = Jsoup.parse(html, url);
                 result.title = page.title();
                 result.contentHash = calculateHash(html);
+                result.simHash = SimHash.of(result.document.body() != null ? result.document.body().text() : null);
 
                 log.debug("Fetched {} with Playwright: {} links found", url, result.document.select("a[href]").size());
             } else {
@@ -83,7 +138,10 @@ public class JavaScriptPageProcessor {
             result.success = false;
             result.errorMessage = e.getMessage();
         } finally {
-            // Clean up page only
+            result.blockedRequests = blocked[0];
+            result.transferredBytes = transferred[0];
+
+            // Clean up page only; the context belongs to the session
             if (page != null) {
                 try {
                     page.close();
@@ -92,26 +150,21 @@ public class JavaScriptPageProcessor {
                 }
             }
         }
+        return result;
+    }
 
-        long endTime = System.currentTimeMillis();
-        result.processingTime = endTime - startTime;
-
-        // Build Page entity
-        result.page = Page.builder()
-                .sessionId(sessionId)
-                .url(url)
-                .parentUrl(parentUrl)
-                .depthLevel(depth)
-                .statusCode(result.statusCode)
-                .title(result.title)
-                .contentHash(result.contentHash)
-                .visitedAt(LocalDateTime.now())
-                .processingTimeMs(result.processingTime)
-                .errorMessage(result.errorMessage)
-                .processed(result.success)
-                .build();
+    /**
+     * Starts the browsers in the background so the first pages do not wait for them.
+     */
+    public void warmUp() {
+        browserPool.warmUp();
+    }
 
-        return result;
+    /**
+     * Closes the browser contexts kept for the session.
+     */
+    public void releaseSession(Long sessionId) {
+        browserPool.releaseSession(sessionId);
     }
 
     private String calculateHash(String content) {
@@ -129,29 +182,4 @@ public class JavaScriptPageProcessor {
             return null;
         }
     }
-
-    private String extractDomain(String url) {
-        try {
-            java.net.URL urlObj = new java.net.URL(url);
-            return urlObj.getHost();
-        } catch (Exception e) {
-            return "localhost";
-        }
-    }
-
-    public void shutdown() {
-        if (sharedContext != null) {
-            try {
-                sharedContext.close();
-            } catch (Exception e) {
-                log.warn("Error closing shared context", e);
-            }
-        }
-        if (browser != null) {
-            browser.close();
-        }
-        if (playwright != null) {
-            playwright.close();
-        }
-    }
 }
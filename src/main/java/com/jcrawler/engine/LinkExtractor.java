@@ -78,7 +78,7 @@ public class LinkExtractor {
         return externalUrls;
     }
 
-    public Set<String> extractAttachmentUrls(Document document, String baseUrl, String baseDomain, List<String> allowedExtensions) {
+    public Set<String> extractAttachmentUrls(Document document, String baseUrl, String baseDomain, UrlFilter urlFilter) {
         Set<String> attachments = new HashSet<>();
         Elements anchorElements = document.select("a[href]");
 
@@ -89,7 +89,7 @@ public class LinkExtractor {
             }
 
             String normalizedUrl = normalizeUrl(href, baseUrl);
-            if (normalizedUrl != null && isSameDomain(normalizedUrl, baseDomain) && isAttachment(normalizedUrl, allowedExtensions)) {
+            if (normalizedUrl != null && isSameDomain(normalizedUrl, baseDomain) && urlFilter.isAttachment(normalizedUrl)) {
                 attachments.add(normalizedUrl);
             }
         }
@@ -97,6 +97,23 @@ public class LinkExtractor {
         return attachments;
     }
 
+    /**
+     * The page's {@code <link rel="canonical">} URL, normalized, or null if it
+     * has none or it points to another domain.
+     */
+    public String extractCanonicalUrl(Document document, String baseUrl, String baseDomain) {
+        Element canonical = document.selectFirst("link[rel=canonical][href]");
+        if (canonical == null) {
+            return null;
+        }
+        String href = canonical.attr("abs:href");
+        if (href.isEmpty()) {
+            return null;
+        }
+        String normalizedUrl = normalizeUrl(href, baseUrl);
+        return normalizedUrl != null && isSameDomain(normalizedUrl, baseDomain) ? normalizedUrl : null;
+    }
+
     public String normalizeUrl(String url, String baseUrl) {
         try {
             URL base = new URL(baseUrl);
@@ -0,0 +1,73 @@
+package com.jcrawler.engine;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Finds pages of a crawl whose SimHash fingerprints differ in at most
+ * {@value #MAX_DISTANCE} bits from a page already seen.
+ * <p>
+ * The 64-bit fingerprint is split into four 16-bit bands, and pages are
+ * bucketed by each band's value. Two fingerprints within three bits of each
+ * other agree in at least one whole band, so only pages sharing a bucket need
+ * to be compared.
+ */
+public class NearDuplicateIndex {
+
+    public static final int MAX_DISTANCE = 3;
+
+    private static final int BANDS = 4;
+    private static final int BAND_BITS = 16;
+
+    // Band number and band value -> pages in that bucket
+    private final Map<Integer, List<Entry>> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong pruned = new AtomicLong();
+
+    /**
+     * Returns the id of an indexed page that is a near-duplicate of the fingerprint, or null.
+     */
+    public Long findTwin(long fingerprint) {
+        for (int band = 0; band < BANDS; band++) {
+            List<Entry> bucket = buckets.get(bucketKey(fingerprint, band));
+            if (bucket == null) {
+                continue;
+            }
+            for (Entry entry : bucket) {
+                if (SimHash.distance(fingerprint, entry.fingerprint) <= MAX_DISTANCE) {
+                    pruned.incrementAndGet();
+                    return entry.pageId;
+                }
+            }
+        }
+        return null;
+    }
+
+    public void add(long fingerprint, Long pageId) {
+        Entry entry = new Entry(fingerprint, pageId);
+        for (int band = 0; band < BANDS; band++) {
+            buckets.computeIfAbsent(bucketKey(fingerprint, band), key -> new CopyOnWriteArrayList<>()).add(entry);
+        }
+    }
+
+    public long getPruned() {
+        return pruned.get();
+    }
+
+    private static int bucketKey(long fingerprint, int band) {
+        int value = (int) (fingerprint >>> (band * BAND_BITS)) & 0xffff;
+        return band << BAND_BITS | value;
+    }
+
+    private static class Entry {
+        final long fingerprint;
+        final Long pageId;
+
+        Entry(long fingerprint, Long pageId) {
+            this.fingerprint = fingerprint;
+            this.pageId = pageId;
+        }
+    }
+}
@@ -8,33 +8,68 @@ import org.jsoup.nodes.Document;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.security.MessageDigest;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
 @Slf4j
 public class PageProcessor {
 
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) JCrawler/1.0";
+    private static final long TIMEOUT_MS = 30_000;
+
     private final OkHttpClient httpClient;
+    private final ResponseCache responseCache;
+    private final RetryPolicy retryPolicy;
+    private final HostCircuitBreaker circuitBreaker;
+    private final HostLatencyTracker latencyTracker;
+
+    public PageProcessor(ResponseCache responseCache, RetryPolicy retryPolicy, HostCircuitBreaker circuitBreaker,
+                         HostLatencyTracker latencyTracker) {
+        this.responseCache = responseCache;
+        this.retryPolicy = retryPolicy;
+        this.circuitBreaker = circuitBreaker;
+        this.latencyTracker = latencyTracker;
 
-    public PageProcessor() {
+        // Hedged fetches run on the dispatcher, which allows only 5 calls per host by default
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(256);
+        dispatcher.setMaxRequestsPerHost(64);
         this.httpClient = new OkHttpClient.Builder()
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
+                .connectTimeout(TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .readTimeout(TIMEOUT_MS, TimeUnit.MILLISECONDS)
                 .followRedirects(true)
+                .dispatcher(dispatcher)
+                .cache(responseCache.getDiskCache())
                 .build();
     }
 
     public PageResult fetchAndParse(String url, Map<String, String> cookies, Long sessionId, String parentUrl, Integer depth) {
+        return fetchAndParse(url, cookies, sessionId, parentUrl, depth, null);
+    }
+
+    /**
+     * Fetches the page conditionally when {@code previous} (the same URL in an
+     * earlier session) has an ETag or Last-Modified validator. If the site
+     * answers 304, the result has no document and {@code notModified} is set;
+     * the page then carries the previous status, title, hash and validators.
+     */
+    public PageResult fetchAndParse(String url, Map<String, String> cookies, Long sessionId, String parentUrl, Integer depth,
+                                    Page previous) {
         long startTime = System.currentTimeMillis();
         PageResult result = new PageResult();
 
         try {
-            Request.Builder requestBuilder = new Request.Builder()
-                    .url(url)
-                    .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) JCrawler/1.0");
+            Map<String, String> headers = new LinkedHashMap<>();
+            headers.put("User-Agent", USER_AGENT);
 
             // Add cookies if provided
             if (cookies != null && !cookies.isEmpty()) {
@@ -45,25 +80,20 @@ public class PageProcessor {
                     }
                     cookieHeader.append(key).append("=").append(value);
                 });
-                requestBuilder.header("Cookie", cookieHeader.toString());
+                headers.put("Cookie", cookieHeader.toString());
             }
 
-            Response response = httpClient.newCall(requestBuilder.build()).execute();
-
-            result.statusCode = response.code();
-            result.success = response.isSuccessful();
-
-            if (response.isSuccessful() && response.body() != null) {
-                String html = response.body().string();
-                result.document = Jsoup.parse(html, url);
-                result.title = result.document.title();
-                result.contentHash = calculateHash(html);
+            ResponseCache.CachedResponse cached = responseCache.get(url, headers);
+            if (cached != null) {
+                result.statusCode = cached.statusCode;
+                result.success = true;
+                result.etag = cached.etag;
+                result.lastModified = cached.lastModified;
+                parse(url, cached.body, result);
             } else {
-                result.errorMessage = "HTTP " + response.code() + ": " + response.message();
+                fetch(url, headers, previous, result);
             }
 
-            response.close();
-
         } catch (IOException e) {
             log.error("Failed to fetch URL: {}", url, e);
             result.success = false;
@@ -82,6 +112,11 @@ public class PageProcessor {
                 .statusCode(result.statusCode)
                 .title(result.title)
                 .contentHash(result.contentHash)
+                .renderedWithJavaScript(false)
+                .etag(result.etag)
+                .lastModified(result.lastModified)
+                .notModified(result.notModified)
+                .simHash(result.simHash)
                 .visitedAt(LocalDateTime.now())
                 .processingTimeMs(result.processingTime)
                 .errorMessage(result.errorMessage)
@@ -91,6 +126,244 @@ public class PageProcessor {
         return result;
     }
 
+    /**
+     * Fetches the page, retrying transient failures as the retry policy allows.
+     * The host's circuit breaker hears once per URL: a success, or a failure
+     * when the retries ran out. While the host's circuit is not closed, a
+     * failed attempt is not retried; the URL is handed back to wait instead.
+     */
+    private void fetch(String url, Map<String, String> headers, Page previous, PageResult result) throws IOException {
+        String host = HostCircuitBreaker.hostOf(url);
+        for (int attempt = 1; ; attempt++) {
+            long delay;
+            try {
+                if (fetchOnce(url, headers, previous, result)) {
+                    circuitBreaker.recordSuccess(host);
+                    return;
+                }
+                if (retryPolicy.isTooLong(result.retryAfterMillis)) {
+                    // Longer than a worker should wait: the host's URLs wait instead
+                    circuitBreaker.openFor(host, result.retryAfterMillis);
+                    result.hostUnavailable = true;
+                    return;
+                }
+                if (deferIfHostDown(host, result)) {
+                    return;
+                }
+                delay = retryPolicy.delayMillis(attempt, result.retryAfterMillis);
+                if (delay < 0) {
+                    circuitBreaker.recordFailure(host);
+                    return;
+                }
+            } catch (IOException e) {
+                result.errorMessage = e.getMessage();
+                if (deferIfHostDown(host, result)) {
+                    return;
+                }
+                delay = retryPolicy.delayMillis(attempt, null);
+                if (delay < 0) {
+                    circuitBreaker.recordFailure(host);
+                    throw e;
+                }
+            }
+
+            log.debug("Retrying {} in {} ms (attempt {} failed)", url, delay, attempt);
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting to retry " + url);
+            }
+        }
+    }
+
+    /**
+     * After a failed attempt: if the host's circuit opened meanwhile or this
+     * fetch was its probe, reports the failure and marks the host unavailable.
+     */
+    private boolean deferIfHostDown(String host, PageResult result) {
+        if (circuitBreaker.isClosed(host)) {
+            return false;
+        }
+        circuitBreaker.recordFailure(host);
+        result.hostUnavailable = true;
+        return true;
+    }
+
+    /**
+     * One attempt at fetching the page.
+     *
+     * @return false if the response is a transient failure worth retrying
+     */
+    private boolean fetchOnce(String url, Map<String, String> headers, Page previous, PageResult result) throws IOException {
+        Request.Builder requestBuilder = new Request.Builder().url(url);
+        headers.forEach(requestBuilder::header);
+
+        // Conditional headers stay out of the response cache key
+        if (previous != null && previous.getEtag() != null) {
+            requestBuilder.header("If-None-Match", previous.getEtag());
+        }
+        if (previous != null && previous.getLastModified() != null) {
+            requestBuilder.header("If-Modified-Since", previous.getLastModified());
+        }
+
+        try (Response response = execute(requestBuilder.build())) {
+            result.statusCode = response.code();
+            result.success = response.isSuccessful();
+            result.etag = response.header("ETag");
+            result.lastModified = response.header("Last-Modified");
+            result.errorMessage = null;
+            result.retryAfterMillis = null;
+
+            if (retryPolicy.isRetryable(response.code())) {
+                result.errorMessage = "HTTP " + response.code() + ": " + response.message();
+                result.retryAfterMillis = RetryPolicy.retryAfterMillis(response);
+                return false;
+            }
+
+            if (response.code() == 304 && previous != null) {
+                result.notModified = true;
+                result.success = true;
+                result.statusCode = previous.getStatusCode();
+                result.title = previous.getTitle();
+                result.contentHash = previous.getContentHash();
+                result.simHash = previous.getSimHash();
+                // A 304 may omit validators that did not change
+                if (result.etag == null) {
+                    result.etag = previous.getEtag();
+                }
+                if (result.lastModified == null) {
+                    result.lastModified = previous.getLastModified();
+                }
+            } else if (response.isSuccessful() && response.body() != null) {
+                String html = response.body().string();
+                responseCache.put(url, headers, response, html);
+                parse(url, html, result);
+            } else {
+                result.errorMessage = "HTTP " + response.code() + ": " + response.message();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sends the request with the host's adaptive timeout, hedging it if the host
+     * is slow to answer, and records how long the answer took.
+     */
+    private Response execute(Request request) throws IOException {
+        String host = request.url().host();
+        long timeout = latencyTracker.timeoutMillis(host, TIMEOUT_MS);
+        OkHttpClient client = timeout == TIMEOUT_MS ? httpClient : httpClient.newBuilder()
+                .connectTimeout(timeout, TimeUnit.MILLISECONDS)
+                .readTimeout(timeout, TimeUnit.MILLISECONDS)
+                .build();
+        Long hedgeDelay = latencyTracker.hedgeDelayMillis(host);
+
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = hedgeDelay != null ? executeHedged(client, request, host, hedgeDelay) : client.newCall(request).execute();
+        } catch (InterruptedIOException e) {
+            if (!Thread.currentThread().isInterrupted()) {
+                latencyTracker.recordTimeout(host, timeout);
+            }
+            throw e;
+        }
+        latencyTracker.record(host, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return response;
+    }
+
+    /**
+     * Sends the request, and an identical one if no answer arrived within
+     * {@code hedgeDelay}. The first response wins; the other call is cancelled.
+     */
+    private Response executeHedged(OkHttpClient client, Request request, String host, long hedgeDelay) throws IOException {
+        HedgedCall hedged = new HedgedCall(host);
+        Call primary = hedged.send(client, request, false);
+        Call hedge = null;
+        Response response = null;
+        try {
+            try {
+                response = hedged.winner.get(hedgeDelay, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (latencyTracker.tryHedge(host)) {
+                    hedge = hedged.send(client, request, true);
+                }
+                response = hedged.winner.get();
+            }
+            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching " + request.url());
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        } finally {
+            // Cancelling the winning call would abort reading its body
+            Call winningCall = hedged.winningCall;
+            if (primary != winningCall) {
+                primary.cancel();
+            }
+            if (hedge != null && hedge != winningCall) {
+                hedge.cancel();
+            }
+            if (response == null) {
+                // A response arriving after we gave up is not read
+                hedged.winner.thenAccept(Response::close);
+            }
+        }
+    }
+
+    /**
+     * The calls of one hedged fetch; the first response wins.
+     */
+    private class HedgedCall {
+        final String host;
+        final CompletableFuture<Response> winner = new CompletableFuture<>();
+        final AtomicInteger pending = new AtomicInteger();
+        volatile Call winningCall;
+
+        HedgedCall(String host) {
+            this.host = host;
+        }
+
+        Call send(OkHttpClient client, Request request, boolean hedge) {
+            pending.incrementAndGet();
+            Call call = client.newCall(request);
+            call.enqueue(new Callback() {
+                @Override
+                public void onResponse(Call call, Response response) {
+                    synchronized (HedgedCall.this) {
+                        if (!winner.isDone()) {
+                            winningCall = call;
+                            winner.complete(response);
+                            if (hedge) {
+                                latencyTracker.recordHedgeWin(host);
+                            }
+                            return;
+                        }
+                    }
+                    response.close();
+                }
+
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    // Fails only when every call sent has failed
+                    if (pending.decrementAndGet() == 0) {
+                        winner.completeExceptionally(e);
+                    }
+                }
+            });
+            return call;
+        }
+    }
+
+    private void parse(String url, String html, PageResult result) {
+        result.document = Jsoup.parse(html, url);
+        result.title = result.document.title();
+        result.contentHash = calculateHash(html);
+        result.simHash = SimHash.of(result.document.body() != null ? result.document.body().text() : null);
+    }
+
     private String calculateHash(String content) {
         try {
             MessageDigest digest = MessageDigest.getInstance("MD5");
@@ -115,6 +388,17 @@ public class PageProcessor {
         public String contentHash;
         public String errorMessage;
         public Long processingTime;
+        public Integer blockedRequests;
+        public Long transferredBytes;
+        public Long renderWaitMs;
+        public String etag;
+        public String lastModified;
+        public boolean notModified;
+        public Long simHash;
+        // Gave up because the host's circuit opened; the page should be fetched once it recovers
+        public boolean hostUnavailable;
+        // Retry-After of the last retryable response
+        Long retryAfterMillis;
         public Page page;
     }
 }
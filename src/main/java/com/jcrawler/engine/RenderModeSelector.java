@@ -0,0 +1,61 @@
+package com.jcrawler.engine;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Learns, per URL pattern, whether the pages of a hybrid crawl need JavaScript
+ * rendering. Once most sampled pages of a pattern had to be escalated, its
+ * further pages are rendered directly without the static attempt, except for
+ * an occasional recheck in case only some of them need it.
+ */
+public class RenderModeSelector {
+
+    private static final int MIN_SAMPLES = 3;
+    private static final double JAVASCRIPT_SHARE = 0.8;
+    private static final int RECHECK_EVERY = 20;
+
+    private final Map<String, PatternStats> patterns = new ConcurrentHashMap<>();
+    private final AtomicLong staticAttemptsSkipped = new AtomicLong();
+
+    public boolean shouldRenderDirectly(String url) {
+        PatternStats stats = patterns.get(UrlPatterns.of(url));
+        if (stats == null) {
+            return false;
+        }
+        synchronized (stats) {
+            if (stats.samples < MIN_SAMPLES || stats.escalated < JAVASCRIPT_SHARE * stats.samples) {
+                return false;
+            }
+            if (++stats.renderedDirectly % RECHECK_EVERY == 0) {
+                return false;
+            }
+        }
+        staticAttemptsSkipped.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Records the outcome of a static attempt.
+     */
+    public void record(String url, boolean neededJavaScript) {
+        PatternStats stats = patterns.computeIfAbsent(UrlPatterns.of(url), pattern -> new PatternStats());
+        synchronized (stats) {
+            stats.samples++;
+            if (neededJavaScript) {
+                stats.escalated++;
+            }
+        }
+    }
+
+    public long getStaticAttemptsSkipped() {
+        return staticAttemptsSkipped.get();
+    }
+
+    private static class PatternStats {
+        int samples;
+        int escalated;
+        int renderedDirectly;
+    }
+}
@@ -0,0 +1,87 @@
+package com.jcrawler.engine;
+
+import com.jcrawler.model.CrawlSession;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.TimeoutError;
+import com.microsoft.playwright.options.WaitForSelectorState;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * Decides when a JavaScript-rendered page is ready to be read: once the DOM has
+ * not changed for a quiet period, optionally after a CSS selector has appeared,
+ * and never later than a hard cap after the page's load event.
+ */
+@Slf4j
+public class RenderReadiness {
+
+    public static final int DEFAULT_QUIET_MS = 500;
+    public static final int DEFAULT_MAX_WAIT_MS = 10000;
+
+    // Resolves once no mutation was seen for quietMs, or after maxWaitMs
+    private static final String WAIT_FOR_QUIET_DOM = """
+            ([quietMs, maxWaitMs]) => new Promise(resolve => {
+                let quietTimer;
+                const finish = reason => {
+                    observer.disconnect();
+                    clearTimeout(quietTimer);
+                    clearTimeout(capTimer);
+                    resolve(reason);
+                };
+                const observer = new MutationObserver(() => {
+                    clearTimeout(quietTimer);
+                    quietTimer = setTimeout(() => finish('quiet'), quietMs);
+                });
+                observer.observe(document, {subtree: true, childList: true, attributes: true, characterData: true});
+                quietTimer = setTimeout(() => finish('quiet'), quietMs);
+                const capTimer = setTimeout(() => finish('cap'), maxWaitMs);
+            })
+            """;
+
+    private final String selector;
+    private final int quietMs;
+    private final int maxWaitMs;
+
+    public RenderReadiness(String selector, int quietMs, int maxWaitMs) {
+        this.selector = selector != null && !selector.isBlank() ? selector : null;
+        this.quietMs = quietMs;
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    public static RenderReadiness forSession(CrawlSession session) {
+        return new RenderReadiness(
+                session.getRenderReadySelector(),
+                session.getRenderQuietMs() != null ? session.getRenderQuietMs() : DEFAULT_QUIET_MS,
+                session.getRenderMaxWaitMs() != null ? session.getRenderMaxWaitMs() : DEFAULT_MAX_WAIT_MS);
+    }
+
+    /**
+     * Waits until the loaded page is ready.
+     *
+     * @return milliseconds waited
+     */
+    public long await(Page page) {
+        long start = System.currentTimeMillis();
+
+        if (selector != null) {
+            try {
+                page.waitForSelector(selector, new Page.WaitForSelectorOptions()
+                        .setState(WaitForSelectorState.ATTACHED)
+                        .setTimeout(maxWaitMs));
+            } catch (TimeoutError e) {
+                log.debug("Selector {} did not appear on {} within {} ms", selector, page.url(), maxWaitMs);
+                return System.currentTimeMillis() - start;
+            }
+        }
+
+        long remaining = maxWaitMs - (System.currentTimeMillis() - start);
+        if (remaining > 0) {
+            Object reason = page.evaluate(WAIT_FOR_QUIET_DOM, List.of(Math.min(quietMs, remaining), remaining));
+            if ("cap".equals(reason)) {
+                log.debug("DOM of {} still changing after {} ms", page.url(), maxWaitMs);
+            }
+        }
+        return System.currentTimeMillis() - start;
+    }
+}
@@ -0,0 +1,91 @@
+package com.jcrawler.engine;
+
+import com.jcrawler.model.CrawlSession;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which subresource requests a JavaScript-rendered page may make.
+ * Requests are aborted by Playwright resource type (image, font, media,
+ * stylesheet, ...) or by URL pattern, where {@code *} matches any characters
+ * and a pattern matches anywhere in the URL.
+ * <p>
+ * The page document itself is never blocked, and XHR/fetch and scripts are
+ * only blocked when their URL matches a pattern, since the page needs them to
+ * render.
+ */
+public class ResourceBlockingPolicy {
+
+    public static final List<String> DEFAULT_BLOCKED_RESOURCE_TYPES = List.of("image", "media", "font", "stylesheet");
+
+    // Analytics, tag managers and ad networks
+    public static final List<String> DEFAULT_BLOCKED_URL_PATTERNS = List.of(
+            "google-analytics.com",
+            "googletagmanager.com",
+            "googlesyndication.com",
+            "doubleclick.net",
+            "connect.facebook.net",
+            "hotjar.com",
+            "segment.io",
+            "mixpanel.com",
+            "clarity.ms");
+
+    public static final ResourceBlockingPolicy NONE = new ResourceBlockingPolicy(List.of(), List.of());
+
+    // Types the page needs to render, blocked only by URL pattern
+    private static final Set<String> RENDER_TYPES = Set.of("document", "script", "xhr", "fetch");
+
+    private final Set<String> resourceTypes;
+    private final List<Pattern> urlPatterns;
+
+    public ResourceBlockingPolicy(List<String> resourceTypes, List<String> urlPatterns) {
+        this.resourceTypes = resourceTypes.stream()
+                .map(type -> type.trim().toLowerCase(Locale.ROOT))
+                .filter(type -> !RENDER_TYPES.contains(type))
+                .collect(Collectors.toUnmodifiableSet());
+        this.urlPatterns = urlPatterns.stream()
+                .filter(pattern -> !pattern.isBlank())
+                .map(ResourceBlockingPolicy::compile)
+                .toList();
+    }
+
+    public static ResourceBlockingPolicy forSession(CrawlSession session) {
+        List<String> types = session.getBlockedResourceTypes() != null ? session.getBlockedResourceTypes() : List.of();
+        List<String> patterns = session.getBlockedUrlPatterns() != null ? session.getBlockedUrlPatterns() : List.of();
+        if (types.isEmpty() && patterns.isEmpty()) {
+            return NONE;
+        }
+        return new ResourceBlockingPolicy(types, patterns);
+    }
+
+    public boolean isEmpty() {
+        return resourceTypes.isEmpty() && urlPatterns.isEmpty();
+    }
+
+    public boolean blocks(String resourceType, String url) {
+        if ("document".equals(resourceType)) {
+            return false;
+        }
+        if (resourceTypes.contains(resourceType)) {
+            return true;
+        }
+        for (Pattern pattern : urlPatterns) {
+            if (pattern.matcher(url).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Pattern compile(String glob) {
+        String regex = Arrays.stream(glob.trim().split("\\*", -1))
+                .map(Pattern::quote)
+                .collect(Collectors.joining(".*"));
+        return Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+    }
+}
@@ -0,0 +1,293 @@
+package com.jcrawler.engine;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.jcrawler.dto.HttpCacheStats;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.CacheControl;
+import okhttp3.HttpUrl;
+import okhttp3.Response;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory cache of fetched pages shared by all crawl sessions, so re-crawls
+ * and overlapping sessions on one site do not fetch fresh pages from the origin
+ * again.
+ * <p>
+ * Entries are keyed by the canonical URL and the request cookies, and remember
+ * the request headers named by the response's {@code Vary}. A response is kept
+ * for as long as its {@code Cache-Control} ({@code s-maxage}, {@code max-age}) or
+ * {@code Expires} header allows, less its {@code Age}; responses without
+ * freshness information are kept for {@code jcrawler.http-cache.default-ttl-seconds}
+ * (0 = not cached). {@code no-store}, {@code no-cache} and {@code Vary: *}
+ * responses are never cached. The cache is bounded by the size of the bodies
+ * it holds, evicting the least valuable entries first.
+ * <p>
+ * For working sets larger than memory, {@code jcrawler.http-cache.disk.max-bytes}
+ * adds OkHttp's disk cache below this one.
+ */
+@Component
+@Slf4j
+public class ResponseCache {
+
+    private final boolean enabled;
+    private final long maxBytes;
+    private final long defaultTtlSeconds;
+    private final Cache<String, CachedResponse> cache;
+    private final okhttp3.Cache diskCache;
+
+    public ResponseCache(@Value("${jcrawler.http-cache.enabled:true}") boolean enabled,
+                         @Value("${jcrawler.http-cache.max-bytes:268435456}") long maxBytes,
+                         @Value("${jcrawler.http-cache.default-ttl-seconds:0}") long defaultTtlSeconds,
+                         @Value("${jcrawler.http-cache.disk.directory:http-cache}") String diskDirectory,
+                         @Value("${jcrawler.http-cache.disk.max-bytes:0}") long diskMaxBytes) {
+        this.enabled = enabled && maxBytes > 0;
+        this.maxBytes = maxBytes;
+        this.defaultTtlSeconds = defaultTtlSeconds;
+        this.diskCache = enabled && diskMaxBytes > 0 ? new okhttp3.Cache(new File(diskDirectory), diskMaxBytes) : null;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(Math.max(0, maxBytes))
+                .weigher((String key, CachedResponse value) -> value.weight())
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+                        return value.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+                        return value.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached response for the request, if one is fresh.
+     *
+     * @param requestHeaders headers sent with the request, including Cookie
+     */
+    public CachedResponse get(String url, Map<String, String> requestHeaders) {
+        if (!enabled) {
+            return null;
+        }
+        String key = keyFor(url, requestHeaders);
+        if (key == null) {
+            return null;
+        }
+
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null && !cached.matches(requestHeaders)) {
+            // Same URL and cookies, but a header the response varies on differs
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * Caches a successful response if its headers allow it.
+     */
+    public void put(String url, Map<String, String> requestHeaders, Response response, String body) {
+        if (!enabled || response.code() != 200 || body == null) {
+            return;
+        }
+        String key = keyFor(url, requestHeaders);
+        if (key == null) {
+            return;
+        }
+
+        long ttlSeconds = freshnessLifetime(response);
+        if (ttlSeconds <= 0) {
+            return;
+        }
+
+        Map<String, String> varyValues = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (String vary : response.headers("Vary")) {
+            for (String name : vary.split(",")) {
+                name = name.trim();
+                if (name.equals("*")) {
+                    return;
+                }
+                if (!name.isEmpty()) {
+                    varyValues.put(name, headerValue(requestHeaders, name));
+                }
+            }
+        }
+
+        cache.put(key, new CachedResponse(response.code(), body, response.header("ETag"), response.header("Last-Modified"),
+                varyValues, TimeUnit.SECONDS.toNanos(ttlSeconds)));
+    }
+
+    /**
+     * OkHttp's disk cache for the fetch client, or null if there is no disk tier.
+     */
+    public okhttp3.Cache getDiskCache() {
+        return diskCache;
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+        if (diskCache != null) {
+            try {
+                diskCache.evictAll();
+            } catch (IOException e) {
+                log.warn("Failed to clear disk cache: {}", e.getMessage());
+            }
+        }
+    }
+
+    public HttpCacheStats getStats() {
+        CacheStats stats = cache.stats();
+        long weightedSize = cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+        return HttpCacheStats.builder()
+                .enabled(enabled)
+                .entries(cache.estimatedSize())
+                .sizeBytes(weightedSize)
+                .maxBytes(maxBytes)
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .hitRatio(stats.hitRate())
+                .evictions(stats.evictionCount())
+                .diskEnabled(diskCache != null)
+                .diskSizeBytes(diskCache != null ? diskSize() : null)
+                .diskHits(diskCache != null ? (long) diskCache.hitCount() : null)
+                .diskRequests(diskCache != null ? (long) diskCache.requestCount() : null)
+                .build();
+    }
+
+    private long diskSize() {
+        try {
+            return diskCache.size();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Seconds the response may be served from the cache, 0 if it must not be cached.
+     */
+    private long freshnessLifetime(Response response) {
+        CacheControl cacheControl = response.cacheControl();
+        if (cacheControl.noStore() || cacheControl.noCache()) {
+            return 0;
+        }
+
+        long lifetime;
+        if (cacheControl.sMaxAgeSeconds() >= 0) {
+            lifetime = cacheControl.sMaxAgeSeconds();
+        } else if (cacheControl.maxAgeSeconds() >= 0) {
+            lifetime = cacheControl.maxAgeSeconds();
+        } else if (response.headers().getDate("Expires") != null) {
+            Date expires = response.headers().getDate("Expires");
+            Date date = response.headers().getDate("Date");
+            long now = date != null ? date.getTime() : response.receivedResponseAtMillis();
+            lifetime = (expires.getTime() - now) / 1000;
+        } else {
+            lifetime = defaultTtlSeconds;
+        }
+
+        String age = response.header("Age");
+        if (age != null) {
+            try {
+                lifetime -= Long.parseLong(age.trim());
+            } catch (NumberFormatException e) {
+                // Ignore malformed header
+            }
+        }
+        return lifetime;
+    }
+
+    /**
+     * Canonical URL (lower-case host, no default port or fragment, sorted query)
+     * followed by the cookies; null for URLs that are not HTTP.
+     */
+    private static String keyFor(String url, Map<String, String> requestHeaders) {
+        HttpUrl httpUrl = HttpUrl.parse(url);
+        if (httpUrl == null) {
+            return null;
+        }
+
+        List<String> query = new ArrayList<>();
+        for (int i = 0; i < httpUrl.querySize(); i++) {
+            String value = httpUrl.queryParameterValue(i);
+            query.add(httpUrl.queryParameterName(i) + (value != null ? "=" + value : ""));
+        }
+        query.sort(null);
+
+        StringBuilder key = new StringBuilder(httpUrl.newBuilder().query(null).fragment(null).build().toString());
+        if (!query.isEmpty()) {
+            key.append('?').append(String.join("&", query));
+        }
+        String cookie = headerValue(requestHeaders, "Cookie");
+        if (cookie != null) {
+            String[] cookies = cookie.split(";\\s*");
+            Arrays.sort(cookies);
+            key.append(' ').append(String.join("; ", cookies));
+        }
+        return key.toString();
+    }
+
+    private static String headerValue(Map<String, String> headers, String name) {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    public static class CachedResponse {
+        public final int statusCode;
+        public final String body;
+        public final String etag;
+        public final String lastModified;
+        // Request header values the response varies on; null when the header was not sent
+        final Map<String, String> varyValues;
+        final long ttlNanos;
+
+        CachedResponse(int statusCode, String body, String etag, String lastModified, Map<String, String> varyValues, long ttlNanos) {
+            this.statusCode = statusCode;
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.varyValues = varyValues;
+            this.ttlNanos = ttlNanos;
+        }
+
+        boolean matches(Map<String, String> requestHeaders) {
+            for (Map.Entry<String, String> vary : varyValues.entrySet()) {
+                String value = headerValue(requestHeaders, vary.getKey());
+                if (value == null ? vary.getValue() != null : !value.equals(vary.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int weight() {
+            // Two bytes per char, ignoring the small fixed overhead
+            return (int) Math.min(Integer.MAX_VALUE, 2L * body.length());
+        }
+    }
+}
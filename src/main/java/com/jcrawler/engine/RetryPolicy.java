@@ -0,0 +1,81 @@
+package com.jcrawler.engine;
+
+import okhttp3.Response;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * When and how long to wait before fetching a page again after a transient
+ * failure: an I/O error such as a timeout or reset connection, or a 429, 502,
+ * 503 or 504 response.
+ * <p>
+ * Attempts are spread out with exponential backoff and full jitter: a random
+ * delay between 0 and {@code base-delay-ms * 2^(attempt - 1)}, at most
+ * {@code max-delay-ms}. A {@code Retry-After} header replaces the random delay;
+ * if it asks for more than {@code max-delay-ms}, the page is not retried.
+ */
+@Component
+public class RetryPolicy {
+
+    private static final Set<Integer> RETRYABLE_STATUS_CODES = Set.of(429, 502, 503, 504);
+
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    public RetryPolicy(@Value("${jcrawler.retry.max-attempts:3}") int maxAttempts,
+                       @Value("${jcrawler.retry.base-delay-ms:500}") long baseDelayMs,
+                       @Value("${jcrawler.retry.max-delay-ms:30000}") long maxDelayMs) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    public boolean isRetryable(int statusCode) {
+        return RETRYABLE_STATUS_CODES.contains(statusCode);
+    }
+
+    /**
+     * Milliseconds to wait before the next attempt, or -1 to give up.
+     *
+     * @param attempt          the attempt that just failed, starting at 1
+     * @param retryAfterMillis what the response's Retry-After asked for, or null
+     */
+    public long delayMillis(int attempt, Long retryAfterMillis) {
+        if (attempt >= maxAttempts) {
+            return -1;
+        }
+        if (retryAfterMillis != null) {
+            return retryAfterMillis <= maxDelayMs ? retryAfterMillis : -1;
+        }
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt - 1, 20));
+        return ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+    }
+
+    /**
+     * Whether a Retry-After asks for a longer wait than a retry may take.
+     */
+    public boolean isTooLong(Long retryAfterMillis) {
+        return retryAfterMillis != null && retryAfterMillis > maxDelayMs;
+    }
+
+    /**
+     * The response's Retry-After (seconds or HTTP date) in milliseconds, or null if it has none.
+     */
+    public static Long retryAfterMillis(Response response) {
+        String retryAfter = response.header("Retry-After");
+        if (retryAfter == null) {
+            return null;
+        }
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim())) * 1000;
+        } catch (NumberFormatException e) {
+            Date date = response.headers().getDate("Retry-After");
+            return date != null ? Math.max(0, date.getTime() - System.currentTimeMillis()) : null;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.jcrawler.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 64-bit SimHash fingerprints of page text. Pages whose text differs only in
+ * a few words (a timestamp, a session token, a sort order) get fingerprints
+ * that differ in only a few bits, unlike the MD5 content hash.
+ * <p>
+ * The fingerprint is built from overlapping three-word shingles, so word
+ * order matters but a single changed word only affects three shingles.
+ */
+public final class SimHash {
+
+    private static final int SHINGLE_SIZE = 3;
+    // Too little text to tell a near-duplicate from a different page with the same boilerplate
+    private static final int MIN_WORDS = 20;
+
+    private SimHash() {
+    }
+
+    /**
+     * The fingerprint of the text, or null if it has fewer than {@value #MIN_WORDS} words.
+     */
+    public static Long of(String text) {
+        if (text == null) {
+            return null;
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        if (words.size() < MIN_WORDS) {
+            return null;
+        }
+
+        int[] weights = new int[64];
+        for (int i = 0; i + SHINGLE_SIZE <= words.size(); i++) {
+            long hash = hash(words, i);
+            for (int bit = 0; bit < 64; bit++) {
+                weights[bit] += ((hash >>> bit) & 1) == 1 ? 1 : -1;
+            }
+        }
+
+        long fingerprint = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    /**
+     * FNV-1a over the shingle's words, followed by the MurmurHash3 finalizer
+     * so that every bit depends on every character.
+     */
+    private static long hash(List<String> words, int start) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start; i < start + SHINGLE_SIZE; i++) {
+            String word = words.get(i);
+            for (int j = 0; j < word.length(); j++) {
+                hash ^= word.charAt(j);
+                hash *= 0x100000001b3L;
+            }
+            hash ^= ' ';
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,25 @@
+package com.jcrawler.engine;
+
+/**
+ * A URL waiting in the frontier, with the depth it was found at and the page it was found on.
+ */
+public class UrlDepthPair {
+    public final String url;
+    public final int depth;
+    public final String parentUrl;
+    // Found on a page that is new or changed since the base session (refresh and incremental crawls)
+    public final boolean foundOnChangedPage;
+    // Already charged to the crawl trap budget; set before the URL can be queued again to wait for its host
+    public boolean admitted;
+
+    public UrlDepthPair(String url, int depth, String parentUrl) {
+        this(url, depth, parentUrl, false);
+    }
+
+    public UrlDepthPair(String url, int depth, String parentUrl, boolean foundOnChangedPage) {
+        this.url = url;
+        this.depth = depth;
+        this.parentUrl = parentUrl;
+        this.foundOnChangedPage = foundOnChangedPage;
+    }
+}
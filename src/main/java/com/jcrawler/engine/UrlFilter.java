@@ -0,0 +1,192 @@
+package com.jcrawler.engine;
+
+import com.jcrawler.model.CrawlSession;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which discovered URLs a crawl queues. Built once per session rather
+ * than for every link.
+ * <p>
+ * A URL is queued when it matches one of the include patterns (regular
+ * expressions, found anywhere in the URL) and none of the exclude patterns,
+ * its path starts with one of the include prefixes and none of the exclude
+ * prefixes, it has at most {@code maxQueryParameters} query parameters, and its
+ * extension is not one of {@link #NON_PAGE_EXTENSIONS}. Empty lists and 0 do
+ * not restrict anything. Each pattern list is compiled into a single
+ * alternation, and extensions are looked up by suffix in a hash set.
+ */
+public class UrlFilter {
+
+    // Not HTML pages: never crawled, whatever the session's filters
+    public static final List<String> NON_PAGE_EXTENSIONS = List.of(
+            ".txt", ".xml", ".json", ".csv", ".pdf", ".doc", ".docx",
+            ".xls", ".xlsx", ".ppt", ".pptx", ".zip", ".rar", ".tar", ".gz",
+            ".jpg", ".jpeg", ".png", ".gif", ".svg", ".ico", ".webp",
+            ".mp3", ".mp4", ".avi", ".mov", ".wav", ".ogg",
+            ".css", ".js", ".woff", ".woff2", ".ttf", ".eot");
+
+    public static final List<String> DEFAULT_ATTACHMENT_EXTENSIONS = List.of(
+            ".pdf", ".docx", ".doc", ".xlsx", ".xls", ".ppt", ".pptx",
+            ".zip", ".rar", ".7z", ".tar", ".gz",
+            ".csv", ".txt", ".json", ".xml",
+            ".png", ".jpg", ".jpeg", ".gif", ".svg", ".bmp", ".webp",
+            ".odt", ".ods", ".odp", ".rtf",
+            ".sql", ".log", ".md");
+
+    // Null when there is no pattern
+    private final Pattern include;
+    private final Pattern exclude;
+    private final List<String> includePrefixes;
+    private final List<String> excludePrefixes;
+    private final int maxQueryParameters;
+    private final Set<String> nonPageExtensions;
+    private final Set<String> attachmentExtensions;
+
+    public UrlFilter(List<String> includePatterns, List<String> excludePatterns, List<String> includePrefixes,
+                     List<String> excludePrefixes, int maxQueryParameters, List<String> attachmentExtensions) {
+        this.include = combine(includePatterns);
+        this.exclude = combine(excludePatterns);
+        this.includePrefixes = withoutBlanks(includePrefixes);
+        this.excludePrefixes = withoutBlanks(excludePrefixes);
+        this.maxQueryParameters = maxQueryParameters;
+        this.nonPageExtensions = extensions(NON_PAGE_EXTENSIONS);
+        this.attachmentExtensions = extensions(attachmentExtensions);
+    }
+
+    /**
+     * The session's filter.
+     *
+     * @throws java.util.regex.PatternSyntaxException if an include or exclude pattern is not a valid regular expression
+     */
+    public static UrlFilter forSession(CrawlSession session) {
+        return new UrlFilter(
+                orEmpty(session.getIncludeUrlPatterns()),
+                orEmpty(session.getExcludeUrlPatterns()),
+                orEmpty(session.getIncludePathPrefixes()),
+                orEmpty(session.getExcludePathPrefixes()),
+                session.getMaxQueryParameters() != null ? session.getMaxQueryParameters() : 0,
+                session.getAllowedFileExtensions() != null ? session.getAllowedFileExtensions() : DEFAULT_ATTACHMENT_EXTENSIONS);
+    }
+
+    /**
+     * Whether a discovered page URL may be queued.
+     */
+    public boolean accepts(String url) {
+        if (isFile(url)) {
+            return false;
+        }
+        if (include != null && !include.matcher(url).find()) {
+            return false;
+        }
+        if (exclude != null && exclude.matcher(url).find()) {
+            return false;
+        }
+
+        if (!includePrefixes.isEmpty() || !excludePrefixes.isEmpty()) {
+            String path = path(url);
+            if (!includePrefixes.isEmpty() && includePrefixes.stream().noneMatch(path::startsWith)) {
+                return false;
+            }
+            if (excludePrefixes.stream().anyMatch(path::startsWith)) {
+                return false;
+            }
+        }
+
+        return maxQueryParameters <= 0 || queryParameters(url) <= maxQueryParameters;
+    }
+
+    /**
+     * Whether the URL is a file rather than an HTML page.
+     */
+    public boolean isFile(String url) {
+        return hasExtension(url, nonPageExtensions);
+    }
+
+    /**
+     * Whether the URL is a file the session records as an attachment.
+     */
+    public boolean isAttachment(String url) {
+        return hasExtension(url, attachmentExtensions);
+    }
+
+    /**
+     * Whether the last path segment ends in one of the extensions, such as
+     * {@code .gz} or {@code .tar.gz} for {@code archive.tar.gz}.
+     */
+    private static boolean hasExtension(String url, Set<String> extensions) {
+        if (extensions.isEmpty()) {
+            return false;
+        }
+        int end = pathEnd(url);
+        int segmentStart = url.lastIndexOf('/', end - 1) + 1;
+        for (int dot = url.indexOf('.', segmentStart); dot >= 0 && dot < end; dot = url.indexOf('.', dot + 1)) {
+            if (extensions.contains(url.substring(dot, end).toLowerCase(Locale.ROOT))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String path(String url) {
+        int schemeEnd = url.indexOf("://");
+        int start = url.indexOf('/', schemeEnd < 0 ? 0 : schemeEnd + 3);
+        int end = pathEnd(url);
+        return start < 0 || start >= end ? "/" : url.substring(start, end);
+    }
+
+    private static int pathEnd(String url) {
+        int end = url.length();
+        int query = url.indexOf('?');
+        if (query >= 0) {
+            end = query;
+        }
+        int fragment = url.indexOf('#');
+        if (fragment >= 0 && fragment < end) {
+            end = fragment;
+        }
+        return end;
+    }
+
+    private static int queryParameters(String url) {
+        int query = url.indexOf('?');
+        if (query < 0 || query == url.length() - 1) {
+            return 0;
+        }
+        int count = 1;
+        for (int i = url.indexOf('&', query); i >= 0; i = url.indexOf('&', i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static Pattern combine(List<String> patterns) {
+        List<String> regexes = withoutBlanks(patterns);
+        if (regexes.isEmpty()) {
+            return null;
+        }
+        // Compiled one by one first, so an invalid pattern is reported on its own
+        regexes.forEach(Pattern::compile);
+        return Pattern.compile(regexes.stream().map(regex -> "(?:" + regex + ")").collect(Collectors.joining("|")));
+    }
+
+    private static Set<String> extensions(List<String> extensions) {
+        return extensions.stream()
+                .map(extension -> extension.trim().toLowerCase(Locale.ROOT))
+                .filter(extension -> !extension.isEmpty())
+                .map(extension -> extension.startsWith(".") ? extension : "." + extension)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private static List<String> withoutBlanks(List<String> values) {
+        return values.stream().filter(value -> !value.isBlank()).map(String::trim).toList();
+    }
+
+    private static List<String> orEmpty(List<String> values) {
+        return values != null ? values : List.of();
+    }
+}
@@ -0,0 +1,64 @@
+package com.jcrawler.engine;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Reduces URLs to patterns shared by pages built from the same template, e.g.
+ * {@code https://shop.example.com/products/123/reviews?page=2} to
+ * {@code shop.example.com/products/{n}/reviews}. The query is dropped, and path
+ * segments that look like ids are replaced with placeholders.
+ */
+public final class UrlPatterns {
+
+    private static final int MAX_SEGMENTS = 6;
+
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+    private static final Pattern HEX_ID = Pattern.compile("(?i)[0-9a-f]{8,}|[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+    // Slugs ending in a number, like "red-shoes-4711"
+    private static final Pattern SLUG_WITH_ID = Pattern.compile("(?i)[a-z0-9-]+-\\d+");
+
+    private UrlPatterns() {
+    }
+
+    public static String of(String url) {
+        String host;
+        String path;
+        try {
+            URI uri = URI.create(url);
+            host = uri.getHost() != null ? uri.getHost().toLowerCase(Locale.ROOT) : "";
+            path = uri.getRawPath() != null ? uri.getRawPath() : "";
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+
+        StringBuilder pattern = new StringBuilder(host);
+        String[] segments = path.split("/");
+        int count = 0;
+        for (String segment : segments) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (++count > MAX_SEGMENTS) {
+                pattern.append("/**");
+                break;
+            }
+            pattern.append('/').append(placeholder(segment));
+        }
+        return pattern.toString();
+    }
+
+    private static String placeholder(String segment) {
+        if (NUMBER.matcher(segment).matches()) {
+            return "{n}";
+        }
+        if (HEX_ID.matcher(segment).matches()) {
+            return "{id}";
+        }
+        if (SLUG_WITH_ID.matcher(segment).matches()) {
+            return "{slug}";
+        }
+        return segment.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,158 @@
+package com.jcrawler.export;
+
+import com.jcrawler.model.DownloadedFile;
+import com.jcrawler.model.ExtractedData;
+import com.jcrawler.model.NavigationFlow;
+import com.jcrawler.model.Page;
+import com.opencsv.CSVWriter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes one CSV file per exported table into the csv/ folder of the export,
+ * row by row as the batches arrive. Files are opened on their first batch, so
+ * tables without rows produce no file.
+ */
+@Slf4j
+public class CsvExportWriter implements ExportWriter {
+
+    private static final String[] EMPTY_ROW = {"", "", "", "", ""};
+
+    private final Path exportDir;
+    private final boolean gzip;
+    private final List<CSVWriter> openWriters = new ArrayList<>();
+
+    private CSVWriter pageDetailsWriter;
+    private int pageNumber;
+
+    private CSVWriter flowsWriter;
+    private CSVWriter extractedDataWriter;
+    private CSVWriter downloadedFilesWriter;
+
+    public CsvExportWriter(Path exportDir, boolean gzip) {
+        this.exportDir = exportDir.resolve("csv");
+        this.gzip = gzip;
+    }
+
+    @Override
+    public void writePages(List<Page> pages) throws IOException {
+        if (pageDetailsWriter == null) {
+            pageDetailsWriter = open("page_details.csv",
+                    "#", "Page URL", "Child Pages (Internal Links)", "External URLs", "Downloaded Files");
+        }
+
+        for (Page page : pages) {
+            // Empty separator row between pages
+            if (pageNumber > 0) {
+                pageDetailsWriter.writeNext(EMPTY_ROW);
+            }
+            pageNumber++;
+            String number = String.valueOf(pageNumber);
+            String pageUrl = page.getUrl() != null ? page.getUrl() : "";
+
+            List<Page.ChildPage> childPages = page.getChildPages() != null ? page.getChildPages() : List.of();
+            List<Page.ExternalUrlInfo> externalUrls = page.getUrls() != null ? page.getUrls() : List.of();
+            List<Page.DownloadInfo> downloads = page.getDownloads() != null ? page.getDownloads() : List.of();
+
+            // One row per related item, and still one row for a page without any
+            int rowCount = Math.max(1, Math.max(Math.max(childPages.size(), externalUrls.size()), downloads.size()));
+            for (int i = 0; i < rowCount; i++) {
+                pageDetailsWriter.writeNext(new String[]{
+                        number,
+                        pageUrl,
+                        i < childPages.size() ? childPages.get(i).getPageUrl() : "",
+                        i < externalUrls.size() ? externalUrls.get(i).getUrl() : "",
+                        i < downloads.size() ? downloads.get(i).getDownload() : ""
+                });
+            }
+        }
+    }
+
+    @Override
+    public void writeFlows(List<NavigationFlow> flows) throws IOException {
+        if (flowsWriter == null) {
+            flowsWriter = open("flows.csv", "ID", "Depth", "Flow Path");
+        }
+
+        for (NavigationFlow flow : flows) {
+            flowsWriter.writeNext(new String[]{
+                    String.valueOf(flow.getId()),
+                    valueOf(flow.getDepth()),
+                    flow.getFlowPath() != null ? String.join(" → ", flow.getFlowPath()) : ""
+            });
+        }
+    }
+
+    @Override
+    public void writeExtractedData(List<ExtractedData> extractedData) throws IOException {
+        if (extractedDataWriter == null) {
+            extractedDataWriter = open("extracted_data.csv", "ID", "Page ID", "Rule ID", "Value");
+        }
+
+        for (ExtractedData data : extractedData) {
+            extractedDataWriter.writeNext(new String[]{
+                    String.valueOf(data.getId()),
+                    valueOf(data.getPageId()),
+                    valueOf(data.getRuleId()),
+                    valueOf(data.getExtractedValue())
+            });
+        }
+    }
+
+    @Override
+    public void writeDownloadedFiles(List<DownloadedFile> downloadedFiles) throws IOException {
+        if (downloadedFilesWriter == null) {
+            downloadedFilesWriter = open("downloaded_files.csv", "ID", "File Name", "URL", "Local Path", "File Size");
+        }
+
+        for (DownloadedFile file : downloadedFiles) {
+            downloadedFilesWriter.writeNext(new String[]{
+                    String.valueOf(file.getId()),
+                    valueOf(file.getFileName()),
+                    valueOf(file.getUrl()),
+                    valueOf(file.getLocalPath()),
+                    String.valueOf(file.getFileSize() != null ? file.getFileSize() : 0L)
+            });
+        }
+    }
+
+    @Override
+    public String finish() throws IOException {
+        close();
+        log.info("Exported to CSV: {}", exportDir);
+        return exportDir.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (CSVWriter writer : openWriters) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        openWriters.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private CSVWriter open(String fileName, String... header) throws IOException {
+        CSVWriter writer = new CSVWriter(new OutputStreamWriter(ExportFiles.open(exportDir, fileName, gzip), StandardCharsets.UTF_8));
+        openWriters.add(writer);
+        writer.writeNext(header);
+        return writer;
+    }
+
+    private static String valueOf(Object value) {
+        return value != null ? value.toString() : "";
+    }
+}
@@ -0,0 +1,249 @@
+package com.jcrawler.export;
+
+import com.jcrawler.model.DownloadedFile;
+import com.jcrawler.model.ExtractedData;
+import com.jcrawler.model.NavigationFlow;
+import com.jcrawler.model.Page;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Writes the Excel export on a streaming workbook. Only the last
+ * {@link #ROW_WINDOW} rows of each sheet are kept in memory; older rows are
+ * flushed to compressed temp files as the batches arrive.
+ * <p>
+ * Cells are never merged: POI keeps every merged region in memory until the
+ * workbook is written. A table that outgrows a sheet continues on the next one
+ * ("Flows (2)", ...).
+ */
+@Slf4j
+public class ExcelExportWriter implements ExportWriter {
+
+    private static final int ROW_WINDOW = 100;
+    private static final int PAGE_DETAIL_COLUMNS = 5;
+    private static final int MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    private final Path excelFile;
+    private final SXSSFWorkbook workbook;
+
+    // Styles are shared by all cells; a workbook holds at most 64000 of them
+    private final CellStyle centerStyle;
+    private final CellStyle centerThickBottomStyle;
+    private final CellStyle thickBottomStyle;
+
+    private final SheetSeries pageDetailsSheets;
+    private int pageNumber;
+    // Last row of the previous page group; gets its separator border once the next group starts
+    private Row lastGroupRow;
+
+    private final SheetSeries flowsSheets;
+    private final SheetSeries extractedDataSheets;
+    private final SheetSeries downloadedFilesSheets;
+
+    public ExcelExportWriter(Path exportDir) {
+        this.excelFile = exportDir.resolve("export.xlsx");
+        this.workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+
+        centerStyle = workbook.createCellStyle();
+        centerStyle.setAlignment(HorizontalAlignment.CENTER);
+        centerStyle.setVerticalAlignment(VerticalAlignment.CENTER);
+
+        centerThickBottomStyle = workbook.createCellStyle();
+        centerThickBottomStyle.cloneStyleFrom(centerStyle);
+        centerThickBottomStyle.setBorderBottom(BorderStyle.THICK);
+
+        thickBottomStyle = workbook.createCellStyle();
+        thickBottomStyle.setBorderBottom(BorderStyle.THICK);
+
+        pageDetailsSheets = new SheetSeries("Page Details", sheet -> {
+            sheet.setColumnWidth(0, 2000);  // # column narrower
+            for (int i = 1; i < PAGE_DETAIL_COLUMNS; i++) {
+                sheet.setColumnWidth(i, 8000);
+            }
+        }, "#", "Page URL", "Child Pages (Internal Links)", "External URLs", "Downloaded Files");
+        flowsSheets = new SheetSeries("Flows", "ID", "Depth", "Flow Path");
+        extractedDataSheets = new SheetSeries("Extracted Data", "ID", "Page ID", "Rule ID", "Value");
+        downloadedFilesSheets = new SheetSeries("Downloaded Files", "ID", "File Name", "URL", "Local Path", "File Size");
+    }
+
+    @Override
+    public void writePages(List<Page> pages) {
+        for (Page page : pages) {
+            pageNumber++;
+            String pageUrl = page.getUrl() != null ? page.getUrl() : "";
+
+            List<String> childPages = new ArrayList<>();
+            if (page.getChildPages() != null) {
+                for (Page.ChildPage cp : page.getChildPages()) {
+                    childPages.add(cp.getPageUrl());
+                }
+            }
+
+            List<String> externalUrls = new ArrayList<>();
+            if (page.getUrls() != null) {
+                for (Page.ExternalUrlInfo url : page.getUrls()) {
+                    externalUrls.add(url.getUrl());
+                }
+            }
+
+            List<String> downloadedFiles = new ArrayList<>();
+            if (page.getDownloads() != null) {
+                for (Page.DownloadInfo download : page.getDownloads()) {
+                    downloadedFiles.add(download.getDownload());
+                }
+            }
+
+            // One row per related item, and still one row for a page without any
+            int rowCount = Math.max(1, Math.max(Math.max(childPages.size(), externalUrls.size()), downloadedFiles.size()));
+
+            // Keep the group on one sheet if it fits on an empty one
+            if (rowCount > pageDetailsSheets.remainingRows() && rowCount < MAX_ROWS) {
+                pageDetailsSheets.startSheet();
+                lastGroupRow = null;
+            }
+
+            // Separate the previous group from this one; its last row is still inside the window
+            if (lastGroupRow != null) {
+                for (int colIdx = 0; colIdx < PAGE_DETAIL_COLUMNS; colIdx++) {
+                    lastGroupRow.getCell(colIdx).setCellStyle(colIdx == 0 ? centerThickBottomStyle : thickBottomStyle);
+                }
+            }
+
+            Row row = null;
+            for (int i = 0; i < rowCount; i++) {
+                row = pageDetailsSheets.createRow();
+                Cell numCell = row.createCell(0);
+                numCell.setCellValue(pageNumber);
+                numCell.setCellStyle(centerStyle);
+                row.createCell(1).setCellValue(pageUrl);
+                row.createCell(2).setCellValue(i < childPages.size() ? childPages.get(i) : "");
+                row.createCell(3).setCellValue(i < externalUrls.size() ? externalUrls.get(i) : "");
+                row.createCell(4).setCellValue(i < downloadedFiles.size() ? downloadedFiles.get(i) : "");
+            }
+            lastGroupRow = row;
+        }
+    }
+
+    @Override
+    public void writeFlows(List<NavigationFlow> flows) {
+        for (NavigationFlow flow : flows) {
+            Row row = flowsSheets.createRow();
+            row.createCell(0).setCellValue(flow.getId());
+            setCellValue(row.createCell(1), flow.getDepth());
+            row.createCell(2).setCellValue(flow.getFlowPath() != null ? String.join(" → ", flow.getFlowPath()) : "");
+        }
+    }
+
+    @Override
+    public void writeExtractedData(List<ExtractedData> extractedData) {
+        for (ExtractedData data : extractedData) {
+            Row row = extractedDataSheets.createRow();
+            row.createCell(0).setCellValue(data.getId());
+            setCellValue(row.createCell(1), data.getPageId());
+            setCellValue(row.createCell(2), data.getRuleId());
+            row.createCell(3).setCellValue(data.getExtractedValue() != null ? data.getExtractedValue() : "");
+        }
+    }
+
+    @Override
+    public void writeDownloadedFiles(List<DownloadedFile> downloadedFiles) {
+        for (DownloadedFile file : downloadedFiles) {
+            Row row = downloadedFilesSheets.createRow();
+            row.createCell(0).setCellValue(file.getId());
+            row.createCell(1).setCellValue(file.getFileName() != null ? file.getFileName() : "");
+            row.createCell(2).setCellValue(file.getUrl() != null ? file.getUrl() : "");
+            row.createCell(3).setCellValue(file.getLocalPath() != null ? file.getLocalPath() : "");
+            row.createCell(4).setCellValue(file.getFileSize() != null ? file.getFileSize() : 0L);
+        }
+    }
+
+    @Override
+    public String finish() throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(excelFile), ExportFiles.BUFFER_SIZE)) {
+            workbook.write(out);
+        }
+
+        log.info("Exported to Excel: {} ({} pages)", excelFile, pageNumber);
+        return excelFile.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Removes the temp files backing the flushed rows
+        workbook.dispose();
+        workbook.close();
+    }
+
+    private void createHeader(Sheet sheet, String... titles) {
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < titles.length; i++) {
+            headerRow.createCell(i).setCellValue(titles[i]);
+        }
+    }
+
+    private void setCellValue(Cell cell, Number value) {
+        if (value != null) {
+            cell.setCellValue(value.doubleValue());
+        }
+    }
+
+    /**
+     * The sheets of one table, created when its first row is written.
+     */
+    private final class SheetSeries {
+
+        private final String name;
+        private final Consumer<Sheet> setup;
+        private final String[] titles;
+
+        private SXSSFSheet sheet;
+        private int sheetCount;
+        private int rowNum;
+
+        private SheetSeries(String name, String... titles) {
+            this(name, sheet -> {
+            }, titles);
+        }
+
+        private SheetSeries(String name, Consumer<Sheet> setup, String... titles) {
+            this.name = name;
+            this.setup = setup;
+            this.titles = titles;
+        }
+
+        /**
+         * Rows left on the current sheet, 0 before the first one.
+         */
+        private int remainingRows() {
+            return sheet == null ? 0 : MAX_ROWS - rowNum;
+        }
+
+        private void startSheet() {
+            sheetCount++;
+            sheet = workbook.createSheet(sheetCount == 1 ? name : name + " (" + sheetCount + ")");
+            createHeader(sheet, titles);
+            setup.accept(sheet);
+            rowNum = 1;
+        }
+
+        private Row createRow() {
+            if (remainingRows() == 0) {
+                startSheet();
+            }
+            return sheet.createRow(rowNum++);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.jcrawler.export;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Last exported row id per table. An export reads only rows with larger ids;
+ * all zero means a full export.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportCursors {
+
+    private long pageId;
+    private long flowId;
+    private long extractedDataId;
+    private long downloadedFileId;
+    private long internalLinkId;
+    private long externalUrlId;
+}
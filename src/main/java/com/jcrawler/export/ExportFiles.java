@@ -0,0 +1,30 @@
+package com.jcrawler.export;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Opens export output files.
+ */
+final class ExportFiles {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private ExportFiles() {
+    }
+
+    /**
+     * Opens a buffered stream for the file, gzip-compressed with a ".gz" suffix if requested.
+     */
+    static OutputStream open(Path exportDir, String fileName, boolean gzip) throws IOException {
+        Files.createDirectories(exportDir);
+        if (gzip) {
+            return new GZIPOutputStream(Files.newOutputStream(exportDir.resolve(fileName + ".gz")), BUFFER_SIZE);
+        }
+        return new BufferedOutputStream(Files.newOutputStream(exportDir.resolve(fileName)), BUFFER_SIZE);
+    }
+}
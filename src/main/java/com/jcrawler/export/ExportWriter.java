@@ -0,0 +1,46 @@
+package com.jcrawler.export;
+
+import com.jcrawler.model.DownloadedFile;
+import com.jcrawler.model.ExtractedData;
+import com.jcrawler.model.NavigationFlow;
+import com.jcrawler.model.Page;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Receives session data batch by batch from {@link SessionExportReader} and
+ * writes it to one export format. Writers must not keep references to the
+ * batches they are handed, so export memory stays bounded.
+ */
+public interface ExportWriter extends Closeable {
+
+    /**
+     * Pages arrive in id order with child pages, external URLs and downloads attached.
+     */
+    void writePages(List<Page> pages) throws IOException;
+
+    default void writeFlows(List<NavigationFlow> flows) throws IOException {
+    }
+
+    default void writeExtractedData(List<ExtractedData> extractedData) throws IOException {
+    }
+
+    default void writeDownloadedFiles(List<DownloadedFile> downloadedFiles) throws IOException {
+    }
+
+    /**
+     * Completes the output after the last batch.
+     *
+     * @return path of the written file or directory
+     */
+    String finish() throws IOException;
+
+    /**
+     * Releases resources; called after {@link #finish()} or when the export fails.
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
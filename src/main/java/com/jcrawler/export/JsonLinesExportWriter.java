@@ -0,0 +1,108 @@
+package com.jcrawler.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.jcrawler.model.DownloadedFile;
+import com.jcrawler.model.ExtractedData;
+import com.jcrawler.model.NavigationFlow;
+import com.jcrawler.model.Page;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes one JSON Lines file per exported table into the jsonl/ folder of the
+ * export: pages.jsonl, flows.jsonl, extracted_data.jsonl and
+ * downloaded_files.jsonl, one object per line.
+ */
+@Slf4j
+public class JsonLinesExportWriter implements ExportWriter {
+
+    private final Path exportDir;
+    private final boolean gzip;
+    private final ObjectWriter objectWriter;
+    private final List<OutputStream> openStreams = new ArrayList<>();
+
+    private OutputStream pagesOut;
+    private OutputStream flowsOut;
+    private OutputStream extractedDataOut;
+    private OutputStream downloadedFilesOut;
+
+    public JsonLinesExportWriter(Path exportDir, boolean gzip, ObjectMapper objectMapper) {
+        this.exportDir = exportDir.resolve("jsonl");
+        this.gzip = gzip;
+        this.objectWriter = objectMapper.writer();
+    }
+
+    @Override
+    public void writePages(List<Page> pages) throws IOException {
+        if (pagesOut == null) {
+            pagesOut = open("pages.jsonl");
+        }
+        writeLines(pagesOut, pages);
+    }
+
+    @Override
+    public void writeFlows(List<NavigationFlow> flows) throws IOException {
+        if (flowsOut == null) {
+            flowsOut = open("flows.jsonl");
+        }
+        writeLines(flowsOut, flows);
+    }
+
+    @Override
+    public void writeExtractedData(List<ExtractedData> extractedData) throws IOException {
+        if (extractedDataOut == null) {
+            extractedDataOut = open("extracted_data.jsonl");
+        }
+        writeLines(extractedDataOut, extractedData);
+    }
+
+    @Override
+    public void writeDownloadedFiles(List<DownloadedFile> downloadedFiles) throws IOException {
+        if (downloadedFilesOut == null) {
+            downloadedFilesOut = open("downloaded_files.jsonl");
+        }
+        writeLines(downloadedFilesOut, downloadedFiles);
+    }
+
+    @Override
+    public String finish() throws IOException {
+        close();
+        log.info("Exported to JSON Lines: {}", exportDir);
+        return exportDir.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (OutputStream out : openStreams) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        openStreams.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void writeLines(OutputStream out, List<?> rows) throws IOException {
+        for (Object row : rows) {
+            out.write(objectWriter.writeValueAsBytes(row));
+            out.write('\n');
+        }
+    }
+
+    private OutputStream open(String fileName) throws IOException {
+        OutputStream out = ExportFiles.open(exportDir, fileName, gzip);
+        openStreams.add(out);
+        return out;
+    }
+}
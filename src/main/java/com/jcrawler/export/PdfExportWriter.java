@@ -0,0 +1,289 @@
+package com.jcrawler.export;
+
+import com.jcrawler.model.Page;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the page details PDF as a table with the same columns as the Excel
+ * and CSV exports. Cell text is wrapped to the column width instead of
+ * truncated, and the header is repeated on every PDF page.
+ * <p>
+ * Finished page content goes to a temp-file scratch cache rather than the
+ * heap, and each page's content stream is closed as soon as the page is full,
+ * so memory grows only with the small per-page dictionaries.
+ */
+@Slf4j
+public class PdfExportWriter implements ExportWriter {
+
+    // Landscape letter
+    private static final PDRectangle PAGE_SIZE = new PDRectangle(PDRectangle.LETTER.getHeight(), PDRectangle.LETTER.getWidth());
+    private static final float MARGIN = 36;
+    private static final float FONT_SIZE = 8;
+    private static final float HEADER_FONT_SIZE = 8.5f;
+    private static final float TITLE_FONT_SIZE = 14;
+    private static final float LEADING = 10;
+    private static final float CELL_PADDING = 3;
+    // A 2048-character URL needs about 45 lines in the page URL column
+    private static final int MAX_CELL_LINES = 48;
+
+    private static final String[] COLUMN_TITLES = {"#", "Page URL", "Child Pages (Internal Links)", "External URLs", "Downloaded Files"};
+    private static final float[] COLUMN_WIDTHS = {28, 212, 170, 170, 140};
+
+    private final Path pdfFile;
+    private final PDDocument document;
+    private final long startTime = System.currentTimeMillis();
+
+    // Standard 14 fonts are created once and shared by every page of the document
+    private final PDFont font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+    private final PDFont boldFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+    // Glyph widths of the body font; null for characters the font cannot encode
+    private final Map<Character, Float> charWidths = new HashMap<>();
+
+    private PDPageContentStream contentStream;
+    private float y;
+    private boolean pageTop;
+    private int pdfPages;
+    private int pageNumber;
+    private long rows;
+
+    public PdfExportWriter(Path exportDir) throws IOException {
+        this.pdfFile = exportDir.resolve("page_details.pdf");
+        this.document = new PDDocument(IOUtils.createTempFileOnlyStreamCache());
+
+        newPage();
+        contentStream.beginText();
+        contentStream.setFont(boldFont, TITLE_FONT_SIZE);
+        contentStream.newLineAtOffset(MARGIN, y - TITLE_FONT_SIZE);
+        contentStream.showText("Page Details Export");
+        contentStream.endText();
+        y -= TITLE_FONT_SIZE + 12;
+        drawHeader();
+    }
+
+    @Override
+    public void writePages(List<Page> pages) throws IOException {
+        for (Page page : pages) {
+            pageNumber++;
+            String number = String.valueOf(pageNumber);
+            String pageUrl = page.getUrl() != null ? page.getUrl() : "";
+
+            List<Page.ChildPage> childPages = page.getChildPages() != null ? page.getChildPages() : List.of();
+            List<Page.ExternalUrlInfo> externalUrls = page.getUrls() != null ? page.getUrls() : List.of();
+            List<Page.DownloadInfo> downloads = page.getDownloads() != null ? page.getDownloads() : List.of();
+
+            // Thick line between page groups
+            if (!pageTop) {
+                drawLine(y, 1.5f);
+            }
+
+            // One row per related item, and still one row for a page without any
+            int rowCount = Math.max(1, Math.max(Math.max(childPages.size(), externalUrls.size()), downloads.size()));
+            for (int i = 0; i < rowCount; i++) {
+                String[] cells = {
+                        "",
+                        "",
+                        i < childPages.size() ? childPages.get(i).getPageUrl() : "",
+                        i < externalUrls.size() ? externalUrls.get(i).getUrl() : "",
+                        i < downloads.size() ? downloads.get(i).getDownload() : ""
+                };
+                // The page is named on its first row and again at the top of each continuation page
+                if (i == 0) {
+                    cells[0] = number;
+                    cells[1] = pageUrl;
+                }
+                List<List<String>> lines = wrapCells(cells);
+                float height = rowHeight(lines);
+
+                if (y - height < MARGIN) {
+                    newPage();
+                    drawHeader();
+                    if (i > 0) {
+                        cells[0] = number;
+                        cells[1] = pageUrl;
+                        lines = wrapCells(cells);
+                        height = rowHeight(lines);
+                    }
+                }
+
+                drawRow(lines);
+                y -= height;
+                pageTop = false;
+                rows++;
+            }
+        }
+    }
+
+    @Override
+    public String finish() throws IOException {
+        contentStream.close();
+        contentStream = null;
+
+        document.save(pdfFile.toFile());
+
+        log.info("Exported to PDF: {} ({} pages, {} rows on {} PDF pages in {} ms)",
+                pdfFile, pageNumber, rows, pdfPages, System.currentTimeMillis() - startTime);
+        return pdfFile.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (contentStream != null) {
+            contentStream.close();
+        }
+        // Also deletes the scratch file
+        document.close();
+    }
+
+    private void newPage() throws IOException {
+        if (contentStream != null) {
+            contentStream.close();
+        }
+
+        PDPage page = new PDPage(PAGE_SIZE);
+        document.addPage(page);
+        pdfPages++;
+
+        contentStream = new PDPageContentStream(document, page);
+        y = PAGE_SIZE.getHeight() - MARGIN;
+        pageTop = true;
+    }
+
+    private void drawHeader() throws IOException {
+        float x = MARGIN;
+        contentStream.setFont(boldFont, HEADER_FONT_SIZE);
+        for (int col = 0; col < COLUMN_TITLES.length; col++) {
+            contentStream.beginText();
+            contentStream.newLineAtOffset(x + CELL_PADDING, y - CELL_PADDING - HEADER_FONT_SIZE);
+            contentStream.showText(COLUMN_TITLES[col]);
+            contentStream.endText();
+            x += COLUMN_WIDTHS[col];
+        }
+        y -= HEADER_FONT_SIZE + 2 * CELL_PADDING + 2;
+        drawLine(y, 0.75f);
+        contentStream.setFont(font, FONT_SIZE);
+    }
+
+    private void drawRow(List<List<String>> lines) throws IOException {
+        float x = MARGIN;
+        for (int col = 0; col < lines.size(); col++) {
+            List<String> cellLines = lines.get(col);
+            if (!cellLines.isEmpty()) {
+                contentStream.beginText();
+                contentStream.newLineAtOffset(x + CELL_PADDING, y - CELL_PADDING - FONT_SIZE);
+                for (int i = 0; i < cellLines.size(); i++) {
+                    if (i > 0) {
+                        contentStream.newLineAtOffset(0, -LEADING);
+                    }
+                    contentStream.showText(cellLines.get(i));
+                }
+                contentStream.endText();
+            }
+            x += COLUMN_WIDTHS[col];
+        }
+    }
+
+    private void drawLine(float atY, float width) throws IOException {
+        contentStream.setLineWidth(width);
+        contentStream.moveTo(MARGIN, atY);
+        contentStream.lineTo(PAGE_SIZE.getWidth() - MARGIN, atY);
+        contentStream.stroke();
+    }
+
+    private List<List<String>> wrapCells(String[] cells) throws IOException {
+        List<List<String>> lines = new ArrayList<>(cells.length);
+        for (int col = 0; col < cells.length; col++) {
+            lines.add(wrap(cells[col], COLUMN_WIDTHS[col] - 2 * CELL_PADDING));
+        }
+        return lines;
+    }
+
+    private float rowHeight(List<List<String>> lines) {
+        int maxLines = 1;
+        for (List<String> cellLines : lines) {
+            maxLines = Math.max(maxLines, cellLines.size());
+        }
+        return (maxLines - 1) * LEADING + FONT_SIZE + 2 * CELL_PADDING + 2;
+    }
+
+    /**
+     * Breaks text into lines that fit the width, preferring to break after URL
+     * separators. Characters the font cannot encode are replaced with '?'.
+     */
+    private List<String> wrap(String text, float width) throws IOException {
+        List<String> lines = new ArrayList<>();
+        StringBuilder line = new StringBuilder();
+        float lineWidth = 0;
+        int lastBreak = -1;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            Float charWidth = charWidth(c);
+            if (charWidth == null) {
+                c = '?';
+                charWidth = charWidth(c);
+            }
+
+            if (lineWidth + charWidth > width && line.length() > 0) {
+                if (lines.size() == MAX_CELL_LINES - 1) {
+                    lines.add(line.append("...").toString());
+                    return lines;
+                }
+                if (lastBreak > 0 && lastBreak < line.length()) {
+                    lines.add(line.substring(0, lastBreak));
+                    line.delete(0, lastBreak);
+                    lineWidth = 0;
+                    for (int j = 0; j < line.length(); j++) {
+                        lineWidth += charWidth(line.charAt(j));
+                    }
+                } else {
+                    lines.add(line.toString());
+                    line.setLength(0);
+                    lineWidth = 0;
+                }
+                lastBreak = -1;
+            }
+
+            line.append(c);
+            lineWidth += charWidth;
+            if (c == '/' || c == '?' || c == '&' || c == '=' || c == '-' || c == '_' || c == '.' || c == ' ') {
+                lastBreak = line.length();
+            }
+        }
+
+        if (line.length() > 0) {
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    private Float charWidth(char c) throws IOException {
+        if (charWidths.containsKey(c)) {
+            return charWidths.get(c);
+        }
+
+        Float width;
+        try {
+            width = font.getStringWidth(String.valueOf(c)) / 1000 * FONT_SIZE;
+        } catch (IllegalArgumentException e) {
+            // Not in the font's encoding (WinAnsi)
+            width = null;
+        }
+        charWidths.put(c, width);
+        return width;
+    }
+}
@@ -0,0 +1,169 @@
+package com.jcrawler.export;
+
+import com.jcrawler.model.DownloadedFile;
+import com.jcrawler.model.ExtractedData;
+import com.jcrawler.model.NavigationFlow;
+import com.jcrawler.model.Page;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs a writer on its own thread behind a small bounded queue. Several queued
+ * writers fed by one {@link SessionExportReader} pass produce their formats in
+ * parallel; when a writer falls behind, the full queue holds back the reader.
+ */
+@Slf4j
+public class QueuedExportWriter implements ExportWriter {
+
+    private static final int QUEUE_CAPACITY = 4;
+
+    private static final BatchTask FINISH = writer -> {
+    };
+    private static final BatchTask ABORT = writer -> {
+    };
+
+    private final ExportWriter delegate;
+    private final BlockingQueue<BatchTask> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final CompletableFuture<String> result = new CompletableFuture<>();
+
+    private volatile Exception failure;
+    private boolean ended;
+
+    public QueuedExportWriter(ExportWriter delegate, Executor executor) {
+        this.delegate = delegate;
+        executor.execute(this::drain);
+    }
+
+    @Override
+    public void writePages(List<Page> pages) throws IOException {
+        enqueue(writer -> writer.writePages(pages));
+    }
+
+    @Override
+    public void writeFlows(List<NavigationFlow> flows) throws IOException {
+        enqueue(writer -> writer.writeFlows(flows));
+    }
+
+    @Override
+    public void writeExtractedData(List<ExtractedData> extractedData) throws IOException {
+        enqueue(writer -> writer.writeExtractedData(extractedData));
+    }
+
+    @Override
+    public void writeDownloadedFiles(List<DownloadedFile> downloadedFiles) throws IOException {
+        enqueue(writer -> writer.writeDownloadedFiles(downloadedFiles));
+    }
+
+    /**
+     * Waits for the queued batches to be written and returns the delegate's result.
+     */
+    @Override
+    public String finish() throws IOException {
+        end(FINISH);
+        return awaitResult();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!ended) {
+            end(ABORT);
+            try {
+                awaitResult();
+            } catch (IOException e) {
+                // Expected: the writer was aborted
+            }
+        }
+    }
+
+    private void enqueue(BatchTask task) throws IOException {
+        // Stop feeding the reader as soon as the writer has failed
+        if (failure != null) {
+            throw asIOException(failure);
+        }
+        put(task);
+    }
+
+    private void end(BatchTask marker) throws IOException {
+        if (!ended) {
+            ended = true;
+            put(marker);
+        }
+    }
+
+    private void put(BatchTask task) throws IOException {
+        try {
+            queue.put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while queueing export batch");
+        }
+    }
+
+    private String awaitResult() throws IOException {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw asIOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for export writer");
+        }
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                BatchTask task = queue.take();
+                if (task == ABORT) {
+                    result.completeExceptionally(new IOException("Export aborted"));
+                    return;
+                }
+                if (task == FINISH) {
+                    if (failure != null) {
+                        result.completeExceptionally(failure);
+                    } else {
+                        result.complete(delegate.finish());
+                    }
+                    return;
+                }
+                // After a failure, keep taking batches so the reader never blocks on a full queue
+                if (failure == null) {
+                    try {
+                        task.write(delegate);
+                    } catch (Exception e) {
+                        log.error("Export writer failed: {}", e.getMessage());
+                        failure = e;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(e);
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+        } finally {
+            try {
+                delegate.close();
+            } catch (IOException e) {
+                log.warn("Failed to close export writer: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static IOException asIOException(Throwable e) {
+        return e instanceof IOException io ? io : new IOException(e.getMessage(), e);
+    }
+
+    @FunctionalInterface
+    private interface BatchTask {
+        void write(ExportWriter writer) throws IOException;
+    }
+}
@@ -0,0 +1,205 @@
+package com.jcrawler.export;
+
+import com.jcrawler.dto.ExportRequest;
+import com.jcrawler.model.DownloadedFile;
+import com.jcrawler.model.ExtractedData;
+import com.jcrawler.model.NavigationFlow;
+import com.jcrawler.model.Page;
+import com.jcrawler.repository.DownloadedFileRepository;
+import com.jcrawler.repository.ExternalUrlRepository;
+import com.jcrawler.repository.ExtractedDataRepository;
+import com.jcrawler.repository.InternalLinkRepository;
+import com.jcrawler.repository.NavigationFlowRepository;
+import com.jcrawler.repository.PageRepository;
+import com.jcrawler.service.FlowPathStore;
+import com.jcrawler.service.PageDetailAssembler;
+import com.jcrawler.service.UrlDictionary;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+
+/**
+ * Reads a session for export with keyset cursors (id > last id, in batches)
+ * and hands each batch to the writers, so no table is ever loaded in full.
+ */
+@Component
+@RequiredArgsConstructor
+public class SessionExportReader {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final PageRepository pageRepository;
+    private final NavigationFlowRepository flowRepository;
+    private final ExtractedDataRepository extractedDataRepository;
+    private final DownloadedFileRepository downloadedFileRepository;
+    private final InternalLinkRepository internalLinkRepository;
+    private final ExternalUrlRepository externalUrlRepository;
+    private final PageDetailAssembler pageDetailAssembler;
+    private final FlowPathStore flowPathStore;
+    private final UrlDictionary urlDictionary;
+    private final EntityManager entityManager;
+
+    public long read(Long sessionId, ExportRequest request, List<ExportWriter> writers) throws IOException {
+        return read(sessionId, request, writers, rows -> {
+        });
+    }
+
+    /**
+     * @param progress called after each batch with the number of rows read so far
+     * @return number of rows handed to the writers
+     */
+    public long read(Long sessionId, ExportRequest request, List<ExportWriter> writers, LongConsumer progress) throws IOException {
+        return read(sessionId, request, writers, new ExportCursors(), progress);
+    }
+
+    /**
+     * Reads only the rows after the given cursors, and advances the cursors to the
+     * last row read from each table. Pages before the page cursor are read again
+     * if internal links or external URLs were added to them after the link cursors.
+     *
+     * @param progress called after each batch with the number of rows read so far
+     * @return number of rows handed to the writers
+     */
+    public long read(Long sessionId, ExportRequest request, List<ExportWriter> writers, ExportCursors cursors,
+                     LongConsumer progress) throws IOException {
+        ReadPass pass = new ReadPass(progress);
+
+        if (request.getIncludePages()) {
+            BatchConsumer<Page> writePages = batch -> {
+                pageDetailAssembler.assemble(sessionId, batch);
+                for (ExportWriter writer : writers) {
+                    writer.writePages(batch);
+                }
+            };
+
+            // Links stored after this point are left to the next read
+            long lastPageId = cursors.getPageId();
+            long afterLinkId = cursors.getInternalLinkId();
+            long afterExternalUrlId = cursors.getExternalUrlId();
+            long lastLinkId = maxId(internalLinkRepository.findMaxIdBySessionId(sessionId));
+            long lastExternalUrlId = maxId(externalUrlRepository.findMaxIdBySessionId(sessionId));
+
+            cursors.setPageId(pass.readInBatches(lastPageId,
+                    (after, pageable) -> pageRepository.findBySessionIdAndIdGreaterThanOrderByIdAsc(sessionId, after, pageable),
+                    Page::getId,
+                    writePages));
+            if (lastPageId > 0) {
+                pass.readInBatches(0L,
+                        (after, pageable) -> pageRepository.findWithLinksAddedBetween(sessionId, after, lastPageId,
+                                afterLinkId, lastLinkId, afterExternalUrlId, lastExternalUrlId, pageable),
+                        Page::getId,
+                        writePages);
+            }
+            cursors.setInternalLinkId(lastLinkId);
+            cursors.setExternalUrlId(lastExternalUrlId);
+        }
+
+        if (request.getIncludeFlows()) {
+            cursors.setFlowId(pass.readInBatches(cursors.getFlowId(),
+                    (after, pageable) -> flowRepository.findBySessionIdAndIdGreaterThanOrderByIdAsc(sessionId, after, pageable),
+                    NavigationFlow::getId,
+                    batch -> {
+                        flowPathStore.resolvePaths(sessionId, batch);
+                        for (ExportWriter writer : writers) {
+                            writer.writeFlows(batch);
+                        }
+                    }));
+        }
+
+        if (request.getIncludeExtractedData()) {
+            cursors.setExtractedDataId(pass.readInBatches(cursors.getExtractedDataId(),
+                    (after, pageable) -> extractedDataRepository.findBySessionIdAndIdGreaterThanOrderByIdAsc(sessionId, after, pageable),
+                    ExtractedData::getId,
+                    batch -> {
+                        for (ExportWriter writer : writers) {
+                            writer.writeExtractedData(batch);
+                        }
+                    }));
+        }
+
+        if (request.getIncludeDownloadedFiles()) {
+            cursors.setDownloadedFileId(pass.readInBatches(cursors.getDownloadedFileId(),
+                    (after, pageable) -> downloadedFileRepository.findBySessionIdAndIdGreaterThanOrderByIdAsc(sessionId, after, pageable),
+                    DownloadedFile::getId,
+                    batch -> {
+                        urlDictionary.resolveDownloadedFiles(batch);
+                        for (ExportWriter writer : writers) {
+                            writer.writeDownloadedFiles(batch);
+                        }
+                    }));
+        }
+
+        return pass.rows;
+    }
+
+    /**
+     * Returns true if any included table has rows after the given cursors.
+     */
+    public boolean hasRowsAfter(Long sessionId, ExportRequest request, ExportCursors cursors) {
+        Pageable first = PageRequest.of(0, 1);
+        return (request.getIncludePages()
+                && (!pageRepository.findBySessionIdAndIdGreaterThanOrderByIdAsc(sessionId, cursors.getPageId(), first).isEmpty()
+                || maxId(internalLinkRepository.findMaxIdBySessionId(sessionId)) > cursors.getInternalLinkId()
+                || maxId(externalUrlRepository.findMaxIdBySessionId(sessionId)) > cursors.getExternalUrlId()))
+                || (request.getIncludeFlows()
+                && !flowRepository.findBySessionIdAndIdGreaterThanOrderByIdAsc(sessionId, cursors.getFlowId(), first).isEmpty())
+                || (request.getIncludeExtractedData()
+                && !extractedDataRepository.findBySessionIdAndIdGreaterThanOrderByIdAsc(sessionId, cursors.getExtractedDataId(), first).isEmpty())
+                || (request.getIncludeDownloadedFiles()
+                && !downloadedFileRepository.findBySessionIdAndIdGreaterThanOrderByIdAsc(sessionId, cursors.getDownloadedFileId(), first).isEmpty());
+    }
+
+    private static long maxId(Long id) {
+        return Objects.requireNonNullElse(id, 0L);
+    }
+
+    /**
+     * Row count and progress reporting for one read over several tables.
+     */
+    private final class ReadPass {
+
+        private final LongConsumer progress;
+        private long rows;
+
+        private ReadPass(LongConsumer progress) {
+            this.progress = progress;
+        }
+
+        /**
+         * @return id of the last row read, or {@code after} if there were none
+         */
+        private <T> long readInBatches(long after, BiFunction<Long, Pageable, List<T>> query, Function<T, Long> idGetter,
+                                       BatchConsumer<T> consumer) throws IOException {
+            Pageable pageable = PageRequest.of(0, BATCH_SIZE);
+            while (true) {
+                List<T> batch = query.apply(after, pageable);
+                if (batch.isEmpty()) {
+                    return after;
+                }
+                consumer.accept(batch);
+                rows += batch.size();
+                progress.accept(rows);
+                after = idGetter.apply(batch.get(batch.size() - 1));
+                // Written rows are no longer needed; keep the persistence context empty
+                entityManager.clear();
+                if (batch.size() < BATCH_SIZE) {
+                    return after;
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface BatchConsumer<T> {
+        void accept(List<T> batch) throws IOException;
+    }
+}
@@ -9,6 +9,7 @@ import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Entity
@@ -58,6 +59,9 @@ public class CrawlSession {
     @Builder.Default
     private Integer totalExternalUrls = 0;
 
+    // URLs not fetched because a crawled page declared the same canonical URL
+    private Integer fetchesAvoided;
+
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(columnDefinition = "json")
     private Map<String, String> sessionCookies;
@@ -86,6 +90,72 @@ public class CrawlSession {
     @Builder.Default
     private Boolean enableJavaScript = false;
 
+    // Null for sessions created before render modes: derived from enableJavaScript
+    @Enumerated(EnumType.STRING)
+    private RenderMode renderMode;
+
+    // Which discovered links are queued and which are attachments (see UrlFilter)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "json")
+    private List<String> includeUrlPatterns;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "json")
+    private List<String> excludeUrlPatterns;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "json")
+    private List<String> includePathPrefixes;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "json")
+    private List<String> excludePathPrefixes;
+
+    private Integer maxQueryParameters;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "json")
+    private List<String> allowedFileExtensions;
+
+    // JavaScript rendering: subresource requests to abort (see ResourceBlockingPolicy)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "json")
+    private List<String> blockedResourceTypes;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "json")
+    private List<String> blockedUrlPatterns;
+
+    // JavaScript rendering: when a page is ready to be read (see RenderReadiness)
+    @Column(length = 500)
+    private String renderReadySelector;
+
+    private Integer renderQuietMs;
+
+    private Integer renderMaxWaitMs;
+
+    // Don't follow the links of pages whose text nearly matches a page already crawled
+    private Boolean skipNearDuplicates;
+
+    // URLs crawled per URL pattern before the pattern is throttled; null or 0 turns trap detection off
+    private Integer urlPatternBudget;
+
+    // Null for sessions created before crawl orders: BFS
+    @Enumerated(EnumType.STRING)
+    private CrawlOrder crawlOrder;
+
+    // BEST_FIRST: regular expression -> score added to matching URLs (see BestFirstFrontier)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "json")
+    private Map<String, Double> urlPriorities;
+
+    // Null for sessions created before crawl modes: FULL
+    @Enumerated(EnumType.STRING)
+    private CrawlMode crawlMode;
+
+    // REFRESH and INCREMENTAL: the earlier session the pages are compared with
+    private Long baseSessionId;
+
     public enum CrawlStatus {
         INITIALIZED,
         RUNNING,
@@ -94,4 +164,28 @@ public class CrawlSession {
         FAILED,
         STOPPED
     }
+
+    public enum RenderMode {
+        STATIC,
+        JAVASCRIPT,
+        // Static first, JavaScript rendering when the page looks like a client-side app shell
+        HYBRID
+    }
+
+    public enum CrawlOrder {
+        // Breadth-first: URLs in the order they were found
+        BFS,
+        // Depth-first: the most recently found URL first
+        DFS,
+        // Highest score first: URL priorities, in-links, depth and freshness
+        BEST_FIRST
+    }
+
+    public enum CrawlMode {
+        FULL,
+        // Conditional requests with the base session's validators; unchanged pages reuse its results
+        REFRESH,
+        // Pages whose content hash matches the base session are only followed, not stored in full
+        INCREMENTAL
+    }
 }
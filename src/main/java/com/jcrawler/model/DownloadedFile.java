@@ -1,5 +1,6 @@
 package com.jcrawler.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -10,7 +11,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "downloaded_file", indexes = {
-    @Index(name = "idx_session_page", columnList = "session_id,page_id")
+    @Index(name = "idx_download_session", columnList = "session_id,id"),
+    @Index(name = "idx_download_page", columnList = "page_id,session_id")
 })
 @Data
 @Builder
@@ -27,9 +29,18 @@ public class DownloadedFile {
 
     private Long pageId;
 
-    @Column(nullable = false, length = 2048)
+    // Reference into the session URL dictionary
+    private Long urlId;
+
+    // Resolved from the URL dictionary when read (see UrlDictionary), not stored
+    @Transient
     private String url;
 
+    // Only set on rows downloaded before the URL dictionary existed
+    @JsonIgnore
+    @Column(name = "url", length = 2048)
+    private String legacyUrl;
+
     @Column(nullable = true, length = 1000)
     private String localPath;
 
@@ -53,4 +64,11 @@ public class DownloadedFile {
 
     @Column(length = 1000)
     private String errorMessage;
+
+    @PostLoad
+    void useLegacyUrl() {
+        if (urlId == null) {
+            url = legacyUrl;
+        }
+    }
 }
@@ -0,0 +1,56 @@
+package com.jcrawler.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a session's incremental exports: the last row id exported from
+ * each table and the sequence number of the last delta written.
+ */
+@Entity
+@Table(name = "export_watermark", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_export_watermark_session", columnNames = "session_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportWatermark {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long sessionId;
+
+    @Builder.Default
+    private Long lastPageId = 0L;
+
+    @Builder.Default
+    private Long lastFlowId = 0L;
+
+    @Builder.Default
+    private Long lastExtractedDataId = 0L;
+
+    @Builder.Default
+    private Long lastDownloadedFileId = 0L;
+
+    // Links and external URLs are exported inside their page's row; a page
+    // that gains some after it was exported is written again
+    @Builder.Default
+    private Long lastInternalLinkId = 0L;
+
+    @Builder.Default
+    private Long lastExternalUrlId = 0L;
+
+    @Builder.Default
+    private Integer lastSequence = 0;
+
+    private LocalDateTime updatedAt;
+}
@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "extracted_data", indexes = {
     @Index(name = "idx_session_rule", columnList = "session_id,rule_id"),
-    @Index(name = "idx_session_page", columnList = "session_id,page_id")
+    @Index(name = "idx_extracted_session_page", columnList = "session_id,page_id"),
+    @Index(name = "idx_extracted_session_id", columnList = "session_id,id")
 })
 @Data
 @Builder
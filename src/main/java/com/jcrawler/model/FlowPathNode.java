@@ -0,0 +1,40 @@
+package com.jcrawler.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Node of the per-session navigation flow trie. Each node stores a single
+ * path step as a URL dictionary id and points at its parent, so flows that
+ * share a prefix from the start URL share the same chain of nodes.
+ */
+@Entity
+@Table(name = "flow_path_node", indexes = {
+    @Index(name = "idx_flow_node_session_parent", columnList = "session_id,parent_id"),
+    @Index(name = "idx_flow_node_session_url", columnList = "session_id,url_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlowPathNode {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long sessionId;
+
+    // Null for root nodes (first step of a path)
+    private Long parentId;
+
+    @Column(nullable = false)
+    private Long urlId;
+
+    @Column(nullable = false)
+    private Integer depth;
+}
@@ -1,5 +1,6 @@
 package com.jcrawler.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -11,7 +12,7 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "internal_link", indexes = {
         @Index(name = "idx_session_internal", columnList = "session_id"),
-        @Index(name = "idx_found_on_page", columnList = "found_on_page")
+        @Index(name = "idx_found_on_page_id", columnList = "found_on_page_id,session_id")
 })
 @Data
 @Builder
@@ -26,12 +27,35 @@ public class InternalLink {
     @Column(nullable = false)
     private Long sessionId;
 
-    @Column(nullable = false, length = 2048)
+    // References into the session URL dictionary
+    private Long urlId;
+
+    private Long foundOnPageId;
+
+    // Resolved from the URL dictionary when read (see UrlDictionary), not stored
+    @Transient
     private String url;
 
-    @Column(length = 2048)
+    @Transient
     private String foundOnPage;
 
+    // Only set on rows crawled before the URL dictionary existed
+    @JsonIgnore
+    @Column(name = "url", length = 2048)
+    private String legacyUrl;
+
+    @JsonIgnore
+    @Column(name = "found_on_page", length = 2048)
+    private String legacyFoundOnPage;
+
     @Column
     private LocalDateTime discoveredAt;
+
+    @PostLoad
+    void useLegacyUrls() {
+        if (urlId == null) {
+            url = legacyUrl;
+            foundOnPage = legacyFoundOnPage;
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.jcrawler.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -13,7 +14,9 @@ import java.util.List;
 
 @Entity
 @Table(name = "navigation_flow", indexes = {
-    @Index(name = "idx_session_depth", columnList = "session_id,depth")
+    @Index(name = "idx_flow_session_depth", columnList = "session_id,depth"),
+    @Index(name = "idx_session_path_node", columnList = "session_id,path_node_id"),
+    @Index(name = "idx_flow_session_id", columnList = "session_id,id")
 })
 @Data
 @Builder
@@ -28,9 +31,15 @@ public class NavigationFlow {
     @Column(nullable = false)
     private Long sessionId;
 
+    // Leaf node of this flow in the session's flow path trie; null for flows
+    // stored before the trie existed
+    private Long pathNodeId;
+
+    // Only set on flows stored before the flow path trie existed
+    @JsonIgnore
     @JdbcTypeCode(SqlTypes.JSON)
-    @Column(nullable = false, columnDefinition = "json")
-    private List<String> flowPath;
+    @Column(name = "flow_path", columnDefinition = "json")
+    private List<String> legacyFlowPath;
 
     @Column(nullable = false)
     private Integer depth;
@@ -38,9 +47,24 @@ public class NavigationFlow {
     @Column(nullable = false)
     private LocalDateTime discoveredAt;
 
-    @Column(length = 2048)
+    // Rebuilt from the flow path trie on read (see FlowPathStore), not stored
+    @Transient
+    private List<String> flowPath;
+
+    @Transient
     private String startUrl;
 
-    @Column(length = 2048)
+    @Transient
     private String endUrl;
+
+    @PostLoad
+    void useLegacyFlowPath() {
+        if (pathNodeId == null && legacyFlowPath != null) {
+            flowPath = legacyFlowPath;
+            if (!legacyFlowPath.isEmpty()) {
+                startUrl = legacyFlowPath.get(0);
+                endUrl = legacyFlowPath.get(legacyFlowPath.size() - 1);
+            }
+        }
+    }
 }
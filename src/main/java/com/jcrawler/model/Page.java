@@ -1,5 +1,6 @@
 package com.jcrawler.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -11,8 +12,9 @@ import java.util.List;
 
 @Entity
 @Table(name = "page", indexes = {
-    @Index(name = "idx_session_url", columnList = "session_id,url"),
-    @Index(name = "idx_session_depth", columnList = "session_id,depth_level")
+    @Index(name = "idx_page_session_url_id", columnList = "session_id,url_id"),
+    @Index(name = "idx_session_depth", columnList = "session_id,depth_level"),
+    @Index(name = "idx_page_session_id", columnList = "session_id,id")
 })
 @Data
 @Builder
@@ -27,12 +29,27 @@ public class Page {
     @Column(nullable = false)
     private Long sessionId;
 
-    @Column(nullable = false, length = 2048)
+    // References into the session URL dictionary
+    private Long urlId;
+
+    private Long parentUrlId;
+
+    // Resolved from the URL dictionary when read (see UrlDictionary), not stored
+    @Transient
     private String url;
 
-    @Column(length = 2048)
+    @Transient
     private String parentUrl;
 
+    // Only set on rows crawled before the URL dictionary existed
+    @JsonIgnore
+    @Column(name = "url", length = 2048)
+    private String legacyUrl;
+
+    @JsonIgnore
+    @Column(name = "parent_url", length = 2048)
+    private String legacyParentUrl;
+
     @Column(nullable = false)
     private Integer depthLevel;
 
@@ -56,6 +73,43 @@ public class Page {
     @Builder.Default
     private Boolean processed = false;
 
+    // JavaScript rendering only: subresource requests aborted by the session's blocking policy,
+    // and response bytes (Content-Length) of the requests that were loaded
+    private Integer blockedRequests;
+
+    private Long transferredBytes;
+
+    // JavaScript rendering only: time spent after the load event waiting for the page to be ready
+    private Long renderWaitMs;
+
+    // Fetched with a headless browser rather than a plain HTTP request
+    private Boolean renderedWithJavaScript;
+
+    // Validators sent back in conditional requests by refresh crawls
+    @Column(length = 255)
+    private String etag;
+
+    @Column(length = 64)
+    private String lastModified;
+
+    // Refresh crawls: the site answered 304, so title, hash and results were copied from the base session
+    private Boolean notModified;
+
+    // Refresh and incremental crawls: compared with the same URL in the base session
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private ChangeStatus changeStatus;
+
+    // The page's rel=canonical URL when it differs from the page URL
+    @Column(length = 2048)
+    private String canonicalUrl;
+
+    // SimHash of the page text (see SimHash), null for pages with little text
+    private Long simHash;
+
+    // Id of an earlier page of the session with nearly the same text; this page's links were not followed
+    private Long nearDuplicateOf;
+
     @Transient
     private List<ChildPage> childPages;
 
@@ -65,6 +119,20 @@ public class Page {
     @Transient
     private List<DownloadInfo> downloads;
 
+    @PostLoad
+    void useLegacyUrls() {
+        if (urlId == null) {
+            url = legacyUrl;
+            parentUrl = legacyParentUrl;
+        }
+    }
+
+    public enum ChangeStatus {
+        ADDED,
+        MODIFIED,
+        UNCHANGED
+    }
+
     // Nested classes for structured data
     @Data
     @AllArgsConstructor
@@ -0,0 +1,36 @@
+package com.jcrawler.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-session URL dictionary entry. Entities reference URLs by this id so the
+ * long URL strings are stored and indexed once per session.
+ */
+@Entity
+@Table(name = "url_dictionary", indexes = {
+    @Index(name = "idx_url_session_hash", columnList = "session_id,url_hash")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UrlEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long sessionId;
+
+    // 64-bit hash of the URL, used for indexed lookup instead of the full string
+    @Column(nullable = false)
+    private Long urlHash;
+
+    @Column(nullable = false, length = 2048)
+    private String url;
+}
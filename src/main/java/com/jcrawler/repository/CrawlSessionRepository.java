@@ -4,7 +4,9 @@ import com.jcrawler.model.CrawlSession;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CrawlSessionRepository extends JpaRepository<CrawlSession, Long> {
@@ -12,4 +14,8 @@ public interface CrawlSessionRepository extends JpaRepository<CrawlSession, Long
     List<CrawlSession> findByStatus(CrawlSession.CrawlStatus status);
 
     List<CrawlSession> findByBaseDomain(String baseDomain);
+
+    Optional<CrawlSession> findFirstByStartUrlAndStatusInOrderByIdDesc(String startUrl, Collection<CrawlSession.CrawlStatus> statuses);
+
+    Optional<CrawlSession> findFirstByBaseDomainAndStatusInOrderByIdDesc(String baseDomain, Collection<CrawlSession.CrawlStatus> statuses);
 }
@@ -1,11 +1,17 @@
 package com.jcrawler.repository;
 
 import com.jcrawler.model.DownloadedFile;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface DownloadedFileRepository extends JpaRepository<DownloadedFile, Long> {
@@ -14,6 +20,20 @@ public interface DownloadedFileRepository extends JpaRepository<DownloadedFile,
 
     List<DownloadedFile> findBySessionIdAndDownloadSuccess(Long sessionId, Boolean downloadSuccess);
 
+    List<DownloadedFile> findBySessionIdAndPageIdInOrderByIdAsc(Long sessionId, Collection<Long> pageIds);
+
     @Query("SELECT COUNT(f) FROM DownloadedFile f WHERE f.sessionId = :sessionId")
     Long countBySessionId(Long sessionId);
+
+    @Query("SELECT MAX(f.id) FROM DownloadedFile f WHERE f.sessionId = :sessionId")
+    Long findMaxIdBySessionId(Long sessionId);
+
+    List<DownloadedFile> findBySessionIdAndIdGreaterThanOrderByIdAsc(Long sessionId, Long afterId, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT f FROM DownloadedFile f WHERE f.sessionId = :sessionId ORDER BY f.id")
+    Stream<DownloadedFile> streamBySessionId(Long sessionId);
 }
@@ -0,0 +1,13 @@
+package com.jcrawler.repository;
+
+import com.jcrawler.model.ExportWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ExportWatermarkRepository extends JpaRepository<ExportWatermark, Long> {
+
+    Optional<ExportWatermark> findBySessionId(Long sessionId);
+}
@@ -1,13 +1,34 @@
 package com.jcrawler.repository;
 
 import com.jcrawler.model.ExternalUrl;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ExternalUrlRepository extends JpaRepository<ExternalUrl, Long> {
     List<ExternalUrl> findBySessionId(Long sessionId);
+    List<ExternalUrl> findBySessionIdAndFoundOnPageIdInOrderByIdAsc(Long sessionId, Collection<Long> foundOnPageIds);
+    List<ExternalUrl> findBySessionIdAndLegacyFoundOnPageInOrderByIdAsc(Long sessionId, Collection<String> legacyFoundOnPages);
     long countBySessionId(Long sessionId);
+
+    @Query("SELECT MAX(u.id) FROM ExternalUrl u WHERE u.sessionId = :sessionId")
+    Long findMaxIdBySessionId(Long sessionId);
+
+    List<ExternalUrl> findBySessionIdAndIdGreaterThanOrderByIdAsc(Long sessionId, Long afterId, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM ExternalUrl u WHERE u.sessionId = :sessionId ORDER BY u.id")
+    Stream<ExternalUrl> streamBySessionId(Long sessionId);
 }
@@ -1,11 +1,16 @@
 package com.jcrawler.repository;
 
 import com.jcrawler.model.ExtractedData;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ExtractedDataRepository extends JpaRepository<ExtractedData, Long> {
@@ -18,4 +23,16 @@ public interface ExtractedDataRepository extends JpaRepository<ExtractedData, Lo
 
     @Query("SELECT COUNT(e) FROM ExtractedData e WHERE e.sessionId = :sessionId")
     Long countBySessionId(Long sessionId);
+
+    @Query("SELECT MAX(e.id) FROM ExtractedData e WHERE e.sessionId = :sessionId")
+    Long findMaxIdBySessionId(Long sessionId);
+
+    List<ExtractedData> findBySessionIdAndIdGreaterThanOrderByIdAsc(Long sessionId, Long afterId, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM ExtractedData e WHERE e.sessionId = :sessionId ORDER BY e.id")
+    Stream<ExtractedData> streamBySessionId(Long sessionId);
 }
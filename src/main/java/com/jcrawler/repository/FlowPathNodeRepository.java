@@ -0,0 +1,19 @@
+package com.jcrawler.repository;
+
+import com.jcrawler.model.FlowPathNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface FlowPathNodeRepository extends JpaRepository<FlowPathNode, Long> {
+
+    @Query("SELECT n.id FROM FlowPathNode n WHERE n.sessionId = :sessionId AND n.urlId = :urlId")
+    List<Long> findIdsBySessionIdAndUrlId(Long sessionId, Long urlId);
+
+    @Query("SELECT n.id FROM FlowPathNode n WHERE n.sessionId = :sessionId AND n.parentId IN :parentIds")
+    List<Long> findIdsBySessionIdAndParentIdIn(Long sessionId, Collection<Long> parentIds);
+}
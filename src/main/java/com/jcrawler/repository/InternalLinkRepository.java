@@ -2,14 +2,21 @@ package com.jcrawler.repository;
 
 import com.jcrawler.model.InternalLink;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface InternalLinkRepository extends JpaRepository<InternalLink, Long> {
     List<InternalLink> findBySessionId(Long sessionId);
-    List<InternalLink> findByFoundOnPage(String foundOnPage);
-    List<InternalLink> findBySessionIdAndFoundOnPage(Long sessionId, String foundOnPage);
+    List<InternalLink> findBySessionIdAndLegacyFoundOnPage(Long sessionId, String legacyFoundOnPage);
+    List<InternalLink> findBySessionIdAndFoundOnPageId(Long sessionId, Long foundOnPageId);
+    List<InternalLink> findBySessionIdAndFoundOnPageIdInOrderByIdAsc(Long sessionId, Collection<Long> foundOnPageIds);
+    List<InternalLink> findBySessionIdAndLegacyFoundOnPageInOrderByIdAsc(Long sessionId, Collection<String> legacyFoundOnPages);
     long countBySessionId(Long sessionId);
+
+    @Query("SELECT MAX(l.id) FROM InternalLink l WHERE l.sessionId = :sessionId")
+    Long findMaxIdBySessionId(Long sessionId);
 }
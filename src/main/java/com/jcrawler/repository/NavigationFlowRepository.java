@@ -1,11 +1,17 @@
 package com.jcrawler.repository;
 
 import com.jcrawler.model.NavigationFlow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface NavigationFlowRepository extends JpaRepository<NavigationFlow, Long> {
@@ -14,6 +20,21 @@ public interface NavigationFlowRepository extends JpaRepository<NavigationFlow,
 
     List<NavigationFlow> findBySessionIdAndDepth(Long sessionId, Integer depth);
 
+    List<NavigationFlow> findBySessionIdAndPathNodeIdInAndIdGreaterThanOrderByIdAsc(Long sessionId, Collection<Long> pathNodeIds,
+                                                                                 Long afterId, Pageable pageable);
+
     @Query("SELECT COUNT(f) FROM NavigationFlow f WHERE f.sessionId = :sessionId")
     Long countBySessionId(Long sessionId);
+
+    @Query("SELECT MAX(f.id) FROM NavigationFlow f WHERE f.sessionId = :sessionId")
+    Long findMaxIdBySessionId(Long sessionId);
+
+    List<NavigationFlow> findBySessionIdAndIdGreaterThanOrderByIdAsc(Long sessionId, Long afterId, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT f FROM NavigationFlow f WHERE f.sessionId = :sessionId ORDER BY f.id")
+    Stream<NavigationFlow> streamBySessionId(Long sessionId);
 }
@@ -1,12 +1,17 @@
 package com.jcrawler.repository;
 
 import com.jcrawler.model.Page;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PageRepository extends JpaRepository<Page, Long> {
@@ -15,11 +20,50 @@ public interface PageRepository extends JpaRepository<Page, Long> {
 
     List<Page> findBySessionIdAndDepthLevel(Long sessionId, Integer depthLevel);
 
-    Optional<Page> findBySessionIdAndUrl(Long sessionId, String url);
+    Optional<Page> findFirstBySessionIdAndLegacyUrlOrderByIdDesc(Long sessionId, String legacyUrl);
+
+    Optional<Page> findFirstBySessionIdAndUrlIdOrderByIdDesc(Long sessionId, Long urlId);
+
+    boolean existsBySessionIdAndUrlIdIsNull(Long sessionId);
 
     @Query("SELECT COUNT(p) FROM Page p WHERE p.sessionId = :sessionId")
     Long countBySessionId(Long sessionId);
 
+    @Query("SELECT MAX(p.id) FROM Page p WHERE p.sessionId = :sessionId")
+    Long findMaxIdBySessionId(Long sessionId);
+
+    @Query("SELECT p.changeStatus, COUNT(p) FROM Page p WHERE p.sessionId = :sessionId GROUP BY p.changeStatus")
+    List<Object[]> countByChangeStatus(Long sessionId);
+
+    @Query("SELECT COALESCE(u.url, p.legacyUrl) FROM Page p LEFT JOIN UrlEntry u ON u.id = p.urlId"
+            + " WHERE p.sessionId = :sessionId AND p.changeStatus = :changeStatus ORDER BY p.id")
+    List<String> findUrlsByChangeStatus(Long sessionId, Page.ChangeStatus changeStatus, Pageable pageable);
+
+    @Query("SELECT COALESCE(u.url, p.legacyUrl) FROM Page p LEFT JOIN UrlEntry u ON u.id = p.urlId WHERE p.sessionId = :sessionId")
+    List<String> findUrlsBySessionId(Long sessionId);
+
     @Query("SELECT p FROM Page p WHERE p.sessionId = :sessionId AND p.processed = false")
     List<Page> findUnprocessedPages(Long sessionId);
+
+    List<Page> findBySessionIdAndIdGreaterThanOrderByIdAsc(Long sessionId, Long afterId, Pageable pageable);
+
+    /**
+     * Pages with afterId < id <= lastId that internal links or external URLs
+     * in the given id ranges were found on.
+     */
+    @Query("SELECT p FROM Page p WHERE p.sessionId = :sessionId AND p.id > :afterId AND p.id <= :lastId"
+            + " AND (EXISTS (SELECT l.id FROM InternalLink l WHERE l.sessionId = :sessionId AND l.foundOnPageId = p.urlId"
+            + " AND l.id > :afterLinkId AND l.id <= :lastLinkId)"
+            + " OR EXISTS (SELECT u.id FROM ExternalUrl u WHERE u.sessionId = :sessionId AND u.foundOnPageId = p.urlId"
+            + " AND u.id > :afterExternalUrlId AND u.id <= :lastExternalUrlId))"
+            + " ORDER BY p.id")
+    List<Page> findWithLinksAddedBetween(Long sessionId, Long afterId, Long lastId, Long afterLinkId, Long lastLinkId,
+                                         Long afterExternalUrlId, Long lastExternalUrlId, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Page p WHERE p.sessionId = :sessionId ORDER BY p.id")
+    Stream<Page> streamBySessionId(Long sessionId);
 }
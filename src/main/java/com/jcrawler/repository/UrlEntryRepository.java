@@ -0,0 +1,13 @@
+package com.jcrawler.repository;
+
+import com.jcrawler.model.UrlEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UrlEntryRepository extends JpaRepository<UrlEntry, Long> {
+
+    List<UrlEntry> findBySessionIdAndUrlHash(Long sessionId, Long urlHash);
+}
@@ -1,10 +1,13 @@
 package com.jcrawler.service;
 
+import com.jcrawler.dto.ChangeReport;
 import com.jcrawler.dto.CrawlRequest;
 import com.jcrawler.dto.CrawlResponse;
 import com.jcrawler.dto.ProgressUpdate;
 import com.jcrawler.engine.CrawlerEngine;
+import com.jcrawler.engine.FrontierStrategy;
 import com.jcrawler.engine.LinkExtractor;
+import com.jcrawler.engine.UrlFilter;
 import com.jcrawler.model.*;
 import com.jcrawler.repository.*;
 import lombok.RequiredArgsConstructor;
@@ -17,6 +20,7 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.PatternSyntaxException;
 
 @Service
 @RequiredArgsConstructor
@@ -34,6 +38,9 @@ public class CrawlerService {
     private final LinkExtractor linkExtractor;
     private final ExtractionService extractionService;
     private final DownloadService downloadService;
+    private final FlowPathStore flowPathStore;
+    private final UrlDictionary urlDictionary;
+    private final SessionBaseline sessionBaseline;
     private final SimpMessagingTemplate messagingTemplate;
 
     @Transactional
@@ -47,6 +54,15 @@ public class CrawlerService {
             throw new IllegalArgumentException("Invalid start URL");
         }
 
+        CrawlSession.CrawlMode crawlMode = request.getCrawlMode() != null ? request.getCrawlMode() : CrawlSession.CrawlMode.FULL;
+        Long baseSessionId = null;
+        if (crawlMode != CrawlSession.CrawlMode.FULL) {
+            baseSessionId = sessionBaseline.resolve(crawlMode, request.getStartUrl(), baseDomain, request.getBaseSessionId())
+                    .map(CrawlSession::getId)
+                    .orElseThrow(() -> new IllegalArgumentException("No previous session to compare with"));
+            log.info("{} crawl against session {}", crawlMode, baseSessionId);
+        }
+
         // Create crawl session
         CrawlSession session = CrawlSession.builder()
                 .startUrl(request.getStartUrl())
@@ -59,8 +75,35 @@ public class CrawlerService {
                 .requestDelay(request.getRequestDelay())
                 .concurrentThreads(request.getConcurrentThreads())
                 .enableJavaScript(request.getEnableJavaScript())
+                .renderMode(request.getRenderMode() != null ? request.getRenderMode()
+                        : Boolean.TRUE.equals(request.getEnableJavaScript()) ? CrawlSession.RenderMode.JAVASCRIPT : CrawlSession.RenderMode.STATIC)
+                .blockedResourceTypes(request.getBlockedResourceTypes())
+                .blockedUrlPatterns(request.getBlockedUrlPatterns())
+                .renderReadySelector(request.getRenderReadySelector())
+                .renderQuietMs(request.getRenderQuietMs())
+                .renderMaxWaitMs(request.getRenderMaxWaitMs())
+                .skipNearDuplicates(request.getSkipNearDuplicates())
+                .urlPatternBudget(request.getUrlPatternBudget())
+                .crawlMode(crawlMode)
+                .baseSessionId(baseSessionId)
+                .includeUrlPatterns(request.getIncludeUrlPatterns())
+                .excludeUrlPatterns(request.getExcludeUrlPatterns())
+                .includePathPrefixes(request.getIncludePathPrefixes())
+                .excludePathPrefixes(request.getExcludePathPrefixes())
+                .maxQueryParameters(request.getMaxQueryParameters())
+                .allowedFileExtensions(request.getAllowedFileExtensions())
+                .crawlOrder(request.getCrawlOrder())
+                .urlPriorities(request.getUrlPriorities())
                 .build();
 
+        // Rejects invalid URL filter and priority patterns before anything is saved
+        try {
+            UrlFilter.forSession(session);
+            FrontierStrategy.forSession(session);
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException("Invalid URL pattern: " + e.getPattern(), e);
+        }
+
         // Handle auth config
         if (request.getAuthConfig() != null) {
             Map<String, String> authConfig = new HashMap<>();
@@ -92,11 +135,17 @@ public class CrawlerService {
         sessionRepository.save(session);
 
         final Long sessionId = session.getId();
+        final Long baseId = baseSessionId;
+        final boolean baseHasLegacyPages = baseId != null && sessionBaseline.hasLegacyPages(baseId);
+        urlDictionary.openSession(sessionId);
+        flowPathStore.openSession(sessionId);
 
         // Start crawl asynchronously
         crawlerEngine.startCrawl(session, new CrawlerEngine.CrawlCallback() {
             @Override
             public void onPageDiscovered(Page page) {
+                page.setUrlId(urlDictionary.idFor(sessionId, page.getUrl()));
+                page.setParentUrlId(urlDictionary.idFor(sessionId, page.getParentUrl()));
                 page = pageRepository.save(page);
 
                 // Extract data if rules exist
@@ -110,10 +159,8 @@ public class CrawlerService {
             public void onFlowDiscovered(List<String> flowPath, Integer depth) {
                 NavigationFlow flow = NavigationFlow.builder()
                         .sessionId(sessionId)
-                        .flowPath(flowPath)
+                        .pathNodeId(flowPathStore.insert(sessionId, flowPath))
                         .depth(depth)
-                        .startUrl(flowPath.get(0))
-                        .endUrl(flowPath.get(flowPath.size() - 1))
                         .discoveredAt(LocalDateTime.now())
                         .build();
                 flow = flowRepository.save(flow);
@@ -144,7 +191,7 @@ public class CrawlerService {
                     DownloadedFile downloadedFile = DownloadedFile.builder()
                             .sessionId(sessionId)
                             .pageId(pageId)
-                            .url(url)
+                            .urlId(urlDictionary.idFor(sessionId, url))
                             .fileName(fileName)
                             .fileExtension(fileExtension)
                             .downloadedAt(LocalDateTime.now())
@@ -172,8 +219,8 @@ public class CrawlerService {
                 try {
                     ExternalUrl externalUrl = ExternalUrl.builder()
                             .sessionId(sessionId)
-                            .url(url)
-                            .foundOnPage(foundOnPage)
+                            .urlId(urlDictionary.idFor(sessionId, url))
+                            .foundOnPageId(urlDictionary.idFor(sessionId, foundOnPage))
                             .discoveredAt(LocalDateTime.now())
                             .domain(linkExtractor.extractDomain(url))
                             .build();
@@ -199,8 +246,8 @@ public class CrawlerService {
                 try {
                     InternalLink internalLink = InternalLink.builder()
                             .sessionId(sessionId)
-                            .url(url)
-                            .foundOnPage(foundOnPage)
+                            .urlId(urlDictionary.idFor(sessionId, url))
+                            .foundOnPageId(urlDictionary.idFor(sessionId, foundOnPage))
                             .discoveredAt(LocalDateTime.now())
                             .build();
                     internalLinkRepository.save(internalLink);
@@ -209,8 +256,46 @@ public class CrawlerService {
                 }
             }
 
+            @Override
+            public Page findPreviousPage(String url) {
+                return sessionBaseline.findPage(baseId, url, baseHasLegacyPages);
+            }
+
+            @Override
+            public List<String> onPageNotModified(Page page, Page previous) {
+                page.setUrlId(urlDictionary.idFor(sessionId, page.getUrl()));
+                page.setParentUrlId(urlDictionary.idFor(sessionId, page.getParentUrl()));
+                page = pageRepository.save(page);
+
+                // Rules the base session did not have are applied as usual
+                List<ExtractionRule> rules = ruleRepository.findBySessionIdAndEnabled(sessionId, true);
+                List<ExtractionRule> newRules = sessionBaseline.copyExtractedData(baseId, previous, page, rules);
+                if (!newRules.isEmpty()) {
+                    extractionService.extractData(page, newRules);
+                }
+
+                return sessionBaseline.copyLinks(baseId, previous, page);
+            }
+
+            @Override
+            public void onPageRecorded(Page page) {
+                page.setUrlId(urlDictionary.idFor(sessionId, page.getUrl()));
+                page.setParentUrlId(urlDictionary.idFor(sessionId, page.getParentUrl()));
+                pageRepository.save(page);
+            }
+
+            @Override
+            public void onFetchesAvoided(int fetchesAvoided) {
+                sessionRepository.findById(sessionId).ifPresent(s -> {
+                    s.setFetchesAvoided(fetchesAvoided);
+                    sessionRepository.save(s);
+                });
+            }
+
             @Override
             public void onComplete() {
+                flowPathStore.evictSession(sessionId);
+                urlDictionary.evictSession(sessionId);
                 CrawlSession s = sessionRepository.findById(sessionId).orElse(null);
                 if (s != null) {
                     s.setStatus(CrawlSession.CrawlStatus.COMPLETED);
@@ -235,6 +320,8 @@ public class CrawlerService {
             @Override
             public void onError(Exception e) {
                 log.error("Crawl error for session: {}", sessionId, e);
+                flowPathStore.evictSession(sessionId);
+                urlDictionary.evictSession(sessionId);
                 CrawlSession s = sessionRepository.findById(sessionId).orElse(null);
                 if (s != null) {
                     s.setStatus(CrawlSession.CrawlStatus.FAILED);
@@ -293,6 +380,15 @@ public class CrawlerService {
         return buildCrawlResponse(session);
     }
 
+    public ChangeReport getChangeReport(Long sessionId, int limit) {
+        CrawlSession session = sessionRepository.findById(sessionId)
+                .orElseThrow(() -> new IllegalArgumentException("Session not found"));
+        if (session.getBaseSessionId() == null) {
+            throw new IllegalArgumentException("Session was not compared with an earlier session");
+        }
+        return sessionBaseline.changeReport(session, limit);
+    }
+
     public CrawlResponse getStatus(Long sessionId) {
         CrawlSession session = sessionRepository.findById(sessionId)
                 .orElseThrow(() -> new IllegalArgumentException("Session not found"));
@@ -312,6 +408,7 @@ public class CrawlerService {
                 .totalExtracted(session.getTotalExtracted())
                 .totalDownloaded(session.getTotalDownloaded())
                 .totalExternalUrls(session.getTotalExternalUrls())
+                .fetchesAvoided(session.getFetchesAvoided())
                 .build();
     }
 }
@@ -1,6 +1,7 @@
 package com.jcrawler.service;
 
 import com.jcrawler.dto.ProgressUpdate;
+import com.jcrawler.engine.HostLatencyTracker;
 import com.jcrawler.model.DownloadedFile;
 import com.jcrawler.repository.CrawlSessionRepository;
 import com.jcrawler.repository.DownloadedFileRepository;
@@ -17,6 +18,7 @@ import org.springframework.stereotype.Service;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
@@ -32,16 +34,20 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class DownloadService {
 
+    private static final long TIMEOUT_MS = 60_000;
+
     private final DownloadedFileRepository downloadedFileRepository;
     private final CrawlSessionRepository sessionRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final UrlDictionary urlDictionary;
+    private final HostLatencyTracker latencyTracker;
 
     @Value("${jcrawler.download.directory:downloads}")
     private String downloadDirectory;
 
     private final OkHttpClient httpClient = new OkHttpClient.Builder()
-            .connectTimeout(60, TimeUnit.SECONDS)
-            .readTimeout(60, TimeUnit.SECONDS)
+            .connectTimeout(TIMEOUT_MS, TimeUnit.MILLISECONDS)
+            .readTimeout(TIMEOUT_MS, TimeUnit.MILLISECONDS)
             .build();
 
     @Async("downloadExecutor")
@@ -52,6 +58,7 @@ public class DownloadService {
                 .sessionId(sessionId)
                 .pageId(pageId)
                 .url(url)
+                .urlId(urlDictionary.idFor(sessionId, url))
                 .downloadedAt(LocalDateTime.now())
                 .build();
 
@@ -69,7 +76,23 @@ public class DownloadService {
                     .url(url)
                     .build();
 
-            Response response = httpClient.newCall(request).execute();
+            // Timeouts follow the host's recent latency, as for page fetches
+            String host = request.url().host();
+            long timeout = latencyTracker.timeoutMillis(host, TIMEOUT_MS);
+            long start = System.nanoTime();
+            Response response;
+            try {
+                response = httpClient.newBuilder()
+                        .connectTimeout(timeout, TimeUnit.MILLISECONDS)
+                        .readTimeout(timeout, TimeUnit.MILLISECONDS)
+                        .build()
+                        .newCall(request)
+                        .execute();
+            } catch (InterruptedIOException e) {
+                latencyTracker.recordTimeout(host, timeout);
+                throw e;
+            }
+            latencyTracker.record(host, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
 
             if (!response.isSuccessful()) {
                 throw new RuntimeException("Failed to download file: HTTP " + response.code());
@@ -142,7 +165,7 @@ public class DownloadService {
     }
 
     public List<DownloadedFile> getDownloadedFiles(Long sessionId) {
-        return downloadedFileRepository.findBySessionId(sessionId);
+        return urlDictionary.resolveDownloadedFiles(downloadedFileRepository.findBySessionId(sessionId));
     }
 
     public DownloadedFile getDownloadedFile(Long fileId) {
@@ -0,0 +1,374 @@
+package com.jcrawler.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jcrawler.dto.ExportCacheEntry;
+import com.jcrawler.dto.ExportCacheStats;
+import com.jcrawler.dto.ExportRequest;
+import com.jcrawler.dto.ExportResponse;
+import com.jcrawler.model.CrawlSession;
+import com.jcrawler.repository.DownloadedFileRepository;
+import com.jcrawler.repository.ExternalUrlRepository;
+import com.jcrawler.repository.ExtractedDataRepository;
+import com.jcrawler.repository.InternalLinkRepository;
+import com.jcrawler.repository.NavigationFlowRepository;
+import com.jcrawler.repository.PageRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps finished exports of sessions that are no longer crawling, keyed by the
+ * session, a version of its data and the normalized export request. A repeated
+ * export is then answered with the files already written.
+ * <p>
+ * Entries are evicted least recently used first once their total size exceeds
+ * the disk budget (jcrawler.export.cache.max-bytes).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportCacheService {
+
+    private static final String ENTRY_FILE = "cache-entry.json";
+    private static final int LOCK_STRIPES = 64;
+
+    // Sessions whose data no longer changes while the status stays the same
+    private static final Set<CrawlSession.CrawlStatus> CACHEABLE_STATUSES = EnumSet.of(
+            CrawlSession.CrawlStatus.COMPLETED, CrawlSession.CrawlStatus.FAILED, CrawlSession.CrawlStatus.STOPPED);
+
+    private final PageRepository pageRepository;
+    private final NavigationFlowRepository flowRepository;
+    private final ExtractedDataRepository extractedDataRepository;
+    private final DownloadedFileRepository downloadedFileRepository;
+    private final InternalLinkRepository internalLinkRepository;
+    private final ExternalUrlRepository externalUrlRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${jcrawler.export.directory:exports}")
+    private String exportDirectory;
+
+    @Value("${jcrawler.export.cache.max-bytes:1073741824}")
+    private long maxBytes;
+
+    // Access order: iteration starts with the least recently used entry
+    private final LinkedHashMap<String, ExportCacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    // Guarded by this
+    private long totalBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Loads the entries left by earlier runs and removes directories of exports
+     * that were interrupted before their entry was written.
+     */
+    @PostConstruct
+    void loadEntries() {
+        Path cacheDir = cacheDirectory();
+        if (!Files.isDirectory(cacheDir)) {
+            return;
+        }
+
+        List<ExportCacheEntry> loaded = new ArrayList<>();
+        try (Stream<Path> dirs = Files.list(cacheDir)) {
+            for (Path dir : (Iterable<Path>) dirs.filter(Files::isDirectory)::iterator) {
+                Path entryFile = dir.resolve(ENTRY_FILE);
+                try {
+                    if (!Files.exists(entryFile)) {
+                        deleteDirectory(dir);
+                        continue;
+                    }
+                    ExportCacheEntry entry = objectMapper.readValue(entryFile.toFile(), ExportCacheEntry.class);
+                    entry.setLastAccessedAt(LocalDateTime.ofInstant(
+                            Files.getLastModifiedTime(entryFile).toInstant(), ZoneId.systemDefault()));
+                    loaded.add(entry);
+                } catch (IOException e) {
+                    log.warn("Dropping unreadable export cache entry {}: {}", dir, e.getMessage());
+                    deleteDirectory(dir);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to load export cache from {}: {}", cacheDir, e.getMessage());
+            return;
+        }
+
+        loaded.sort(Comparator.comparing(ExportCacheEntry::getLastAccessedAt));
+        synchronized (this) {
+            for (ExportCacheEntry entry : loaded) {
+                entries.put(entry.getKey(), entry);
+                totalBytes += entry.getSizeBytes();
+            }
+            evict(null);
+        }
+        log.info("Loaded {} export cache entries ({} bytes)", loaded.size(), totalBytes);
+    }
+
+    /**
+     * Returns the cache key of an export, or empty when the export must not be
+     * cached: incremental exports and sessions that may still change.
+     */
+    public Optional<String> keyFor(CrawlSession session, ExportRequest request) {
+        if (Boolean.TRUE.equals(request.getIncremental()) || !CACHEABLE_STATUSES.contains(session.getStatus())) {
+            return Optional.empty();
+        }
+
+        Long sessionId = session.getId();
+        // Any row written after the export, even by a stopped crawl's last workers, changes the version
+        String version = String.join(",",
+                session.getStatus().name(),
+                String.valueOf(session.getEndTime()),
+                String.valueOf(session.getTotalPages()),
+                String.valueOf(session.getTotalFlows()),
+                String.valueOf(session.getTotalExtracted()),
+                String.valueOf(session.getTotalDownloaded()),
+                String.valueOf(session.getTotalExternalUrls()),
+                String.valueOf(pageRepository.findMaxIdBySessionId(sessionId)),
+                String.valueOf(flowRepository.findMaxIdBySessionId(sessionId)),
+                String.valueOf(extractedDataRepository.findMaxIdBySessionId(sessionId)),
+                String.valueOf(downloadedFileRepository.findMaxIdBySessionId(sessionId)),
+                String.valueOf(internalLinkRepository.findMaxIdBySessionId(sessionId)),
+                String.valueOf(externalUrlRepository.findMaxIdBySessionId(sessionId)));
+
+        return Optional.of(sha256("session=" + sessionId + ";version=" + version + ";request=" + normalize(request)));
+    }
+
+    /**
+     * Returns the cached export for the key and marks it as most recently used.
+     */
+    public Optional<ExportResponse> get(String key) {
+        ExportCacheEntry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            if (!Files.isDirectory(Paths.get(entry.getDirectory()))) {
+                // Removed from disk behind our back
+                remove(key);
+                return Optional.empty();
+            }
+            hits++;
+            entry.setHits(entry.getHits() + 1);
+            entry.setLastAccessedAt(LocalDateTime.now());
+        }
+
+        // Keeps the recency across restarts
+        try {
+            Files.setLastModifiedTime(Paths.get(entry.getDirectory()).resolve(ENTRY_FILE), FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.debug("Failed to touch export cache entry {}: {}", key, e.getMessage());
+        }
+
+        ExportResponse result = entry.getResult();
+        return Optional.of(ExportResponse.builder()
+                .directory(result.getDirectory())
+                .files(result.getFiles())
+                .rowsExported(result.getRowsExported())
+                .durationMs(result.getDurationMs())
+                .rowsPerSecond(result.getRowsPerSecond())
+                .cached(true)
+                .build());
+    }
+
+    /**
+     * Directory a cacheable export is written to before it is added with {@link #put}.
+     */
+    public Path directoryFor(String key) {
+        return cacheDirectory().resolve(key);
+    }
+
+    /**
+     * Lock held while an export for the key is looked up and written, so
+     * identical concurrent requests write it only once.
+     */
+    public Object lockFor(String key) {
+        return locks[Math.floorMod(key.hashCode(), LOCK_STRIPES)];
+    }
+
+    /**
+     * Adds an export written to {@link #directoryFor} and evicts older entries
+     * if the cache is over its budget.
+     */
+    public void put(String key, Long sessionId, ExportResponse result) throws IOException {
+        Path dir = directoryFor(key);
+        ExportCacheEntry entry = ExportCacheEntry.builder()
+                .key(key)
+                .sessionId(sessionId)
+                .directory(dir.toString())
+                .sizeBytes(sizeOf(dir))
+                .createdAt(LocalDateTime.now())
+                .lastAccessedAt(LocalDateTime.now())
+                .hits(0L)
+                .result(result)
+                .build();
+        // Written last: a directory without it is an interrupted export
+        objectMapper.writeValue(dir.resolve(ENTRY_FILE).toFile(), entry);
+
+        synchronized (this) {
+            misses++;
+            ExportCacheEntry previous = entries.put(key, entry);
+            if (previous != null) {
+                totalBytes -= previous.getSizeBytes();
+            }
+            totalBytes += entry.getSizeBytes();
+            evict(key);
+        }
+    }
+
+    /**
+     * Deletes what a failed export left in {@link #directoryFor}.
+     */
+    public void discard(String key) {
+        deleteDirectory(directoryFor(key));
+    }
+
+    public synchronized ExportCacheStats getStats() {
+        List<ExportCacheEntry> list = new ArrayList<>(entries.values());
+        Collections.reverse(list);
+        return ExportCacheStats.builder()
+                .maxBytes(maxBytes)
+                .totalBytes(totalBytes)
+                .entryCount(entries.size())
+                .hits(hits)
+                .misses(misses)
+                .evictions(evictions)
+                .entries(list)
+                .build();
+    }
+
+    /**
+     * Removes all entries, or only those of one session.
+     *
+     * @return number of entries removed
+     */
+    public synchronized int purge(Long sessionId) {
+        List<String> keys = entries.values().stream()
+                .filter(entry -> sessionId == null || sessionId.equals(entry.getSessionId()))
+                .map(ExportCacheEntry::getKey)
+                .collect(Collectors.toList());
+        keys.forEach(this::remove);
+        log.info("Purged {} export cache entries", keys.size());
+        return keys.size();
+    }
+
+    public synchronized boolean purgeEntry(String key) {
+        return remove(key);
+    }
+
+    /**
+     * Evicts least recently used entries until the cache fits its budget. The
+     * entry just added is kept even if it alone exceeds the budget, since its
+     * files are being returned.
+     */
+    private void evict(String keep) {
+        Iterator<Map.Entry<String, ExportCacheEntry>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            ExportCacheEntry entry = it.next().getValue();
+            if (entry.getKey().equals(keep)) {
+                continue;
+            }
+            it.remove();
+            totalBytes -= entry.getSizeBytes();
+            evictions++;
+            deleteDirectory(Paths.get(entry.getDirectory()));
+            log.debug("Evicted export cache entry {} of session {}", entry.getKey(), entry.getSessionId());
+        }
+    }
+
+    private boolean remove(String key) {
+        ExportCacheEntry entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        totalBytes -= entry.getSizeBytes();
+        deleteDirectory(Paths.get(entry.getDirectory()));
+        return true;
+    }
+
+    private Path cacheDirectory() {
+        return Paths.get(exportDirectory, "cache");
+    }
+
+    /**
+     * Request flags in a fixed order, with defaults filled in and formats
+     * sorted, so equivalent requests get the same key.
+     */
+    private static String normalize(ExportRequest request) {
+        String formats = request.getFormats().stream()
+                .distinct()
+                .sorted()
+                .map(Enum::name)
+                .collect(Collectors.joining(","));
+        return "formats=" + formats
+                + ";pages=" + !Boolean.FALSE.equals(request.getIncludePages())
+                + ";flows=" + !Boolean.FALSE.equals(request.getIncludeFlows())
+                + ";extractedData=" + !Boolean.FALSE.equals(request.getIncludeExtractedData())
+                + ";downloadedFiles=" + !Boolean.FALSE.equals(request.getIncludeDownloadedFiles())
+                + ";gzip=" + Boolean.TRUE.equals(request.getGzip());
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static long sizeOf(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            long size = 0;
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                size += Files.size(file);
+            }
+            return size;
+        }
+    }
+
+    private static void deleteDirectory(Path dir) {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete {}: {}", dir, e.getMessage());
+        }
+    }
+}
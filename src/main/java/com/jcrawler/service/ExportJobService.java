@@ -0,0 +1,183 @@
+package com.jcrawler.service;
+
+import com.jcrawler.dto.ExportJob;
+import com.jcrawler.dto.ExportRequest;
+import com.jcrawler.dto.ExportResponse;
+import com.jcrawler.dto.ProgressUpdate;
+import com.jcrawler.model.CrawlSession;
+import com.jcrawler.repository.CrawlSessionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Runs exports as background jobs. Jobs are kept in memory; progress is sent
+ * on the session's WebSocket topic and can also be polled.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportJobService {
+
+    private static final long PROGRESS_INTERVAL_MS = 500;
+    private static final long JOB_RETENTION_HOURS = 24;
+
+    private final ExportService exportService;
+    private final ExportCacheService exportCacheService;
+    private final CrawlSessionRepository sessionRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final Executor exportExecutor;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    public ExportJob submit(ExportRequest request) {
+        CrawlSession session = sessionRepository.findById(request.getSessionId())
+                .orElseThrow(() -> new IllegalArgumentException("Session not found"));
+
+        pruneFinishedJobs();
+
+        // A cached export completes without queueing
+        Optional<ExportResponse> cached = exportCacheService.keyFor(session, request).flatMap(exportCacheService::get);
+        if (cached.isPresent()) {
+            LocalDateTime now = LocalDateTime.now();
+            ExportJob job = ExportJob.builder()
+                    .jobId(UUID.randomUUID().toString())
+                    .sessionId(session.getId())
+                    .formats(request.getFormats())
+                    .submittedAt(now)
+                    .status(ExportJob.JobStatus.COMPLETED)
+                    .rowsExported(cached.get().getRowsExported())
+                    .totalRows(cached.get().getRowsExported())
+                    .completedAt(now)
+                    .result(cached.get())
+                    .build();
+            jobs.put(job.getJobId(), job);
+            log.info("Export of session {} served from cache as job {}", session.getId(), job.getJobId());
+            return job;
+        }
+
+        ExportJob job = ExportJob.builder()
+                .jobId(UUID.randomUUID().toString())
+                .sessionId(session.getId())
+                .formats(request.getFormats())
+                .submittedAt(LocalDateTime.now())
+                .status(ExportJob.JobStatus.QUEUED)
+                .rowsExported(0L)
+                .totalRows(expectedRows(session, request))
+                .build();
+        jobs.put(job.getJobId(), job);
+
+        try {
+            exportExecutor.execute(() -> run(job, request));
+        } catch (RuntimeException e) {
+            jobs.remove(job.getJobId());
+            throw e;
+        }
+        return job;
+    }
+
+    public Optional<ExportJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Writes the given export file or directory as a zip archive.
+     */
+    public void writeArchive(Path path, OutputStream out) throws IOException {
+        Path base = Files.isDirectory(path) ? path : path.getParent();
+        try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out, 64 * 1024));
+             Stream<Path> files = Files.walk(path)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                zip.putNextEntry(new ZipEntry(base.relativize(file).toString().replace('\\', '/')));
+                Files.copy(file, zip);
+                zip.closeEntry();
+            }
+        }
+    }
+
+    private void run(ExportJob job, ExportRequest request) {
+        job.setStatus(ExportJob.JobStatus.RUNNING);
+        publish(job);
+
+        long[] lastPublished = {System.currentTimeMillis()};
+        try {
+            ExportResponse result = exportService.export(request, rows -> {
+                job.setRowsExported(rows);
+                long now = System.currentTimeMillis();
+                if (now - lastPublished[0] >= PROGRESS_INTERVAL_MS) {
+                    lastPublished[0] = now;
+                    publish(job);
+                }
+            });
+            job.setResult(result);
+            job.setRowsExported(result.getRowsExported());
+            job.setStatus(ExportJob.JobStatus.COMPLETED);
+        } catch (Exception e) {
+            log.error("Export job {} for session {} failed", job.getJobId(), job.getSessionId(), e);
+            job.setError(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            job.setStatus(ExportJob.JobStatus.FAILED);
+        }
+        job.setCompletedAt(LocalDateTime.now());
+        publish(job);
+    }
+
+    private void publish(ExportJob job) {
+        try {
+            ProgressUpdate update = ProgressUpdate.exportProgress(job.getSessionId(), job.getJobId(),
+                    job.getStatus().name(), job.getRowsExported(), job.getTotalRows());
+            messagingTemplate.convertAndSend("/topic/crawler/" + job.getSessionId() + "/progress", update);
+        } catch (Exception e) {
+            log.warn("Failed to send export progress: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Estimates the rows an export reads from the session counters, for progress reporting.
+     */
+    private long expectedRows(CrawlSession session, ExportRequest request) {
+        long rows = 0;
+        if (request.getIncludePages()) {
+            rows += valueOf(session.getTotalPages());
+        }
+        if (request.getIncludeFlows()) {
+            rows += valueOf(session.getTotalFlows());
+        }
+        if (request.getIncludeExtractedData()) {
+            rows += valueOf(session.getTotalExtracted());
+        }
+        if (request.getIncludeDownloadedFiles()) {
+            rows += valueOf(session.getTotalDownloaded());
+        }
+        return rows;
+    }
+
+    private void pruneFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(JOB_RETENTION_HOURS);
+        List<String> expired = jobs.values().stream()
+                .filter(job -> job.getCompletedAt() != null && job.getCompletedAt().isBefore(cutoff))
+                .map(ExportJob::getJobId)
+                .toList();
+        expired.forEach(jobs::remove);
+    }
+
+    private static long valueOf(Integer count) {
+        return count != null ? count : 0;
+    }
+}
@@ -1,29 +1,41 @@
 package com.jcrawler.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jcrawler.dto.ExportManifest;
 import com.jcrawler.dto.ExportRequest;
-import com.jcrawler.model.*;
-import com.jcrawler.repository.*;
-import com.opencsv.CSVWriter;
+import com.jcrawler.dto.ExportResponse;
+import com.jcrawler.export.CsvExportWriter;
+import com.jcrawler.export.ExcelExportWriter;
+import com.jcrawler.export.ExportCursors;
+import com.jcrawler.export.ExportWriter;
+import com.jcrawler.export.JsonLinesExportWriter;
+import com.jcrawler.export.PdfExportWriter;
+import com.jcrawler.export.QueuedExportWriter;
+import com.jcrawler.export.SessionExportReader;
+import com.jcrawler.model.CrawlSession;
+import com.jcrawler.model.ExportWatermark;
+import com.jcrawler.repository.CrawlSessionRepository;
+import com.jcrawler.repository.ExportWatermarkRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.PDPageContentStream;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
-import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.*;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.LongConsumer;
 
 @Service
 @RequiredArgsConstructor
@@ -31,562 +43,233 @@ import java.util.*;
 public class ExportService {
 
     private final CrawlSessionRepository sessionRepository;
-    private final PageRepository pageRepository;
-    private final NavigationFlowRepository flowRepository;
-    private final ExtractedDataRepository extractedDataRepository;
-    private final DownloadedFileRepository downloadedFileRepository;
-    private final ExternalUrlRepository externalUrlRepository;
-    private final InternalLinkRepository internalLinkRepository;
+    private final SessionExportReader sessionExportReader;
+    private final ObjectMapper objectMapper;
+    private final Executor exportWriterExecutor;
+    private final ExportWatermarkRepository watermarkRepository;
+    private final ExportCacheService exportCacheService;
 
-    private final ObjectMapper objectMapper = new ObjectMapper()
-            .registerModule(new JavaTimeModule())
-            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
-            .enable(SerializationFeature.INDENT_OUTPUT);
+    @Value("${jcrawler.export.directory:exports}")
+    private String exportDirectory;
 
-    public Map<String, String> export(ExportRequest request) throws Exception {
-        Map<String, String> exportedFiles = new HashMap<>();
+    private final Map<Long, Object> incrementalLocks = new ConcurrentHashMap<>();
 
-        CrawlSession session = sessionRepository.findById(request.getSessionId())
-                .orElseThrow(() -> new IllegalArgumentException("Session not found"));
-
-        // Create export directory
-        Path exportDir = Paths.get("exports", "session_" + session.getId() + "_" + System.currentTimeMillis());
-        Files.createDirectories(exportDir);
-
-        // Collect data
-        ExportData exportData = collectExportData(session, request);
-
-        // Export to requested formats
-        for (ExportRequest.ExportFormat format : request.getFormats()) {
-            String filePath = switch (format) {
-                case CSV -> exportToCsv(exportData, exportDir);
-                case EXCEL -> exportToExcel(exportData, exportDir);
-                case PDF -> exportToPdf(exportData, exportDir);
-            };
-            exportedFiles.put(format.name(), filePath);
-        }
-
-        return exportedFiles;
+    public ExportResponse export(ExportRequest request) throws Exception {
+        return export(request, rows -> {
+        });
     }
 
-    private ExportData collectExportData(CrawlSession session, ExportRequest request) {
-        ExportData data = new ExportData();
-        data.session = session;
-
-        if (request.getIncludePages()) {
-            data.pages = pageRepository.findBySessionId(session.getId());
-            data.externalUrls = externalUrlRepository.findBySessionId(session.getId());
-            data.downloadedFiles = downloadedFileRepository.findBySessionId(session.getId());
-
-            // Populate structured data for each page
-            for (Page page : data.pages) {
-                // Child pages - use discovered internal links
-                List<Page.ChildPage> childPages = new ArrayList<>();
-                List<InternalLink> discoveredLinks = internalLinkRepository.findBySessionIdAndFoundOnPage(session.getId(), page.getUrl());
-                for (InternalLink link : discoveredLinks) {
-                    childPages.add(new Page.ChildPage(link.getUrl()));
-                }
-                page.setChildPages(childPages);
-
-                // External URLs
-                List<Page.ExternalUrlInfo> urls = new ArrayList<>();
-                for (ExternalUrl externalUrl : data.externalUrls) {
-                    if (externalUrl.getFoundOnPage() != null && externalUrl.getFoundOnPage().equals(page.getUrl())) {
-                        urls.add(new Page.ExternalUrlInfo(externalUrl.getUrl()));
-                    }
-                }
-                page.setUrls(urls);
+    /**
+     * Exports the session in all requested formats from a single pass over its
+     * data. With more than one format, each writer runs on its own thread.
+     *
+     * @param progress called after each batch with the number of rows read so far
+     */
+    public ExportResponse export(ExportRequest request, LongConsumer progress) throws Exception {
+        CrawlSession session = sessionRepository.findById(request.getSessionId())
+                .orElseThrow(() -> new IllegalArgumentException("Session not found"));
 
-                // Downloaded files
-                List<Page.DownloadInfo> downloads = new ArrayList<>();
-                for (DownloadedFile file : data.downloadedFiles) {
-                    if (file.getPageId() != null && file.getPageId().equals(page.getId())) {
-                        downloads.add(new Page.DownloadInfo(file.getFileName() != null ? file.getFileName() : file.getUrl()));
-                    }
-                }
-                page.setDownloads(downloads);
+        if (Boolean.TRUE.equals(request.getIncremental())) {
+            // Deltas of one session must not interleave
+            synchronized (incrementalLocks.computeIfAbsent(session.getId(), id -> new Object())) {
+                return exportIncremental(session, request, progress);
             }
         }
 
-        if (request.getIncludeFlows()) {
-            data.flows = flowRepository.findBySessionId(session.getId());
+        String cacheKey = exportCacheService.keyFor(session, request).orElse(null);
+        if (cacheKey != null) {
+            synchronized (exportCacheService.lockFor(cacheKey)) {
+                return exportCached(session, request, cacheKey, progress);
+            }
         }
 
-        if (request.getIncludeExtractedData()) {
-            data.extractedData = extractedDataRepository.findBySessionId(session.getId());
-        }
+        // Create export directory
+        Path exportDir = Paths.get(exportDirectory, "session_" + session.getId() + "_" + System.currentTimeMillis());
+        return write(session, request, exportDir, new ExportCursors(), progress);
+    }
 
-        if (request.getIncludeDownloadedFiles() && data.downloadedFiles == null) {
-            data.downloadedFiles = downloadedFileRepository.findBySessionId(session.getId());
+    /**
+     * Returns the cached export for the key, or writes it into the cache. Runs
+     * under the key's lock, so a concurrent identical request waits and gets
+     * the cached files instead of writing them again.
+     */
+    private ExportResponse exportCached(CrawlSession session, ExportRequest request, String cacheKey,
+                                        LongConsumer progress) throws Exception {
+        Optional<ExportResponse> cached = exportCacheService.get(cacheKey);
+        if (cached.isPresent()) {
+            log.info("Export of session {} served from cache entry {}", session.getId(), cacheKey);
+            return cached.get();
         }
 
-        if (data.externalUrls == null) {
-            data.externalUrls = externalUrlRepository.findBySessionId(session.getId());
+        try {
+            ExportResponse response = write(session, request, exportCacheService.directoryFor(cacheKey), new ExportCursors(), progress);
+            exportCacheService.put(cacheKey, session.getId(), response);
+            return response;
+        } catch (Exception e) {
+            exportCacheService.discard(cacheKey);
+            throw e;
         }
-
-        return data;
-    }
-
-    private String exportToJson(ExportData data, Path exportDir) throws IOException {
-        Path jsonFile = exportDir.resolve("export.json");
-        objectMapper.writeValue(jsonFile.toFile(), data);
-        log.info("Exported to JSON: {}", jsonFile);
-        return jsonFile.toString();
     }
 
-    private String exportToCsv(ExportData data, Path exportDir) throws IOException {
-        // Export page details to CSV (same structure as Excel)
-        if (data.pages != null && !data.pages.isEmpty()) {
-            Path csvFile = exportDir.resolve("page_details.csv");
-            try (CSVWriter writer = new CSVWriter(new FileWriter(csvFile.toFile()))) {
-                // Header
-                writer.writeNext(new String[]{"#", "Page URL", "Child Pages (Internal Links)", "External URLs", "Downloaded Files"});
-
-                int pageNumber = 0;
-                // For each page, find related data
-                for (Page page : data.pages) {
-                    pageNumber++;
-                    String pageUrl = page.getUrl() != null ? page.getUrl() : "";
-
-                    // Use the structured fields that were already populated
-                    List<String> childPages = new ArrayList<>();
-                    if (page.getChildPages() != null) {
-                        for (Page.ChildPage cp : page.getChildPages()) {
-                            childPages.add(cp.getPageUrl());
-                        }
-                    }
-
-                    List<String> externalUrls = new ArrayList<>();
-                    if (page.getUrls() != null) {
-                        for (Page.ExternalUrlInfo url : page.getUrls()) {
-                            externalUrls.add(url.getUrl());
-                        }
-                    }
-
-                    List<String> downloadedFiles = new ArrayList<>();
-                    if (page.getDownloads() != null) {
-                        for (Page.DownloadInfo download : page.getDownloads()) {
-                            downloadedFiles.add(download.getDownload());
-                        }
-                    }
-
-                    // Find the maximum count to determine how many rows we need for this page
-                    int maxCount = Math.max(Math.max(childPages.size(), externalUrls.size()), downloadedFiles.size());
-
-                    // If no related data, still create one row for the page
-                    if (maxCount == 0) {
-                        writer.writeNext(new String[]{String.valueOf(pageNumber), pageUrl, "", "", ""});
-                    } else {
-                        // Create multiple rows, one for each item
-                        for (int i = 0; i < maxCount; i++) {
-                            writer.writeNext(new String[]{
-                                    String.valueOf(pageNumber),
-                                    pageUrl,
-                                    i < childPages.size() ? childPages.get(i) : "",
-                                    i < externalUrls.size() ? externalUrls.get(i) : "",
-                                    i < downloadedFiles.size() ? downloadedFiles.get(i) : ""
-                            });
-                        }
-                    }
-
-                    // Add empty separator row between pages
-                    if (pageNumber < data.pages.size()) {
-                        writer.writeNext(new String[]{"", "", "", "", ""});
-                    }
-                }
-            }
+    /**
+     * Writes the rows added since the session's watermark into the next delta
+     * directory, records the delta in the manifest and moves the watermark.
+     * A page that gained links since it was exported is written again in full.
+     */
+    private ExportResponse exportIncremental(CrawlSession session, ExportRequest request, LongConsumer progress) throws Exception {
+        ExportWatermark watermark = watermarkRepository.findBySessionId(session.getId())
+                .orElseGet(() -> ExportWatermark.builder().sessionId(session.getId()).build());
+        // Watermarks saved before links were tracked have none: check all links once
+        ExportCursors cursors = new ExportCursors(watermark.getLastPageId(), watermark.getLastFlowId(),
+                watermark.getLastExtractedDataId(), watermark.getLastDownloadedFileId(),
+                Objects.requireNonNullElse(watermark.getLastInternalLinkId(), 0L),
+                Objects.requireNonNullElse(watermark.getLastExternalUrlId(), 0L));
+
+        Path seriesDir = Paths.get(exportDirectory, "session_" + session.getId() + "_incremental");
+        Path manifestFile = seriesDir.resolve("manifest.json");
+
+        if (!sessionExportReader.hasRowsAfter(session.getId(), request, cursors)) {
+            log.info("No rows added to session {} since export delta {}", session.getId(), watermark.getLastSequence());
+            return ExportResponse.builder()
+                    .directory(seriesDir.toString())
+                    .manifest(manifestFile.toString())
+                    .deltaSequence(watermark.getLastSequence())
+                    .files(Map.of())
+                    .rowsExported(0L)
+                    .durationMs(0L)
+                    .rowsPerSecond(0.0)
+                    .build();
         }
 
-        log.info("Exported to CSV: {}", exportDir);
-        return exportDir.toString();
+        int sequence = watermark.getLastSequence() + 1;
+        Path deltaDir = seriesDir.resolve(String.format("delta_%04d", sequence));
+        ExportCursors from = new ExportCursors(cursors.getPageId(), cursors.getFlowId(),
+                cursors.getExtractedDataId(), cursors.getDownloadedFileId(),
+                cursors.getInternalLinkId(), cursors.getExternalUrlId());
+
+        ExportResponse response = write(session, request, deltaDir, cursors, progress);
+
+        // The manifest is updated before the watermark: if saving the watermark fails,
+        // the next delta repeats these rows instead of skipping them
+        appendToManifest(manifestFile, session.getId(), ExportManifest.Delta.builder()
+                .sequence(sequence)
+                .directory(deltaDir.getFileName().toString())
+                .exportedAt(LocalDateTime.now())
+                .formats(request.getFormats())
+                .rows(response.getRowsExported())
+                .tables(idRanges(request, from, cursors))
+                .build());
+
+        watermark.setLastPageId(cursors.getPageId());
+        watermark.setLastFlowId(cursors.getFlowId());
+        watermark.setLastExtractedDataId(cursors.getExtractedDataId());
+        watermark.setLastDownloadedFileId(cursors.getDownloadedFileId());
+        watermark.setLastInternalLinkId(cursors.getInternalLinkId());
+        watermark.setLastExternalUrlId(cursors.getExternalUrlId());
+        watermark.setLastSequence(sequence);
+        watermark.setUpdatedAt(LocalDateTime.now());
+        watermarkRepository.save(watermark);
+
+        response.setManifest(manifestFile.toString());
+        response.setDeltaSequence(sequence);
+        return response;
     }
 
-    private String exportToExcel(ExportData data, Path exportDir) throws IOException {
-        Path excelFile = exportDir.resolve("export.xlsx");
+    private ExportResponse write(CrawlSession session, ExportRequest request, Path exportDir, ExportCursors cursors,
+                                 LongConsumer progress) throws Exception {
+        Map<String, String> exportedFiles = new LinkedHashMap<>();
+        Files.createDirectories(exportDir);
 
-        try (Workbook workbook = new XSSFWorkbook()) {
-            // Only create Page Details sheet
-            if (data.pages != null && !data.pages.isEmpty()) {
-                Sheet pageDetailsSheet = workbook.createSheet("Page Details");
-                createPageDetailsSheetWithMerging(pageDetailsSheet, data, workbook);
-            }
+        List<ExportRequest.ExportFormat> formats = request.getFormats().stream().distinct().toList();
 
-            try (FileOutputStream fos = new FileOutputStream(excelFile.toFile())) {
-                workbook.write(fos);
+        long start = System.currentTimeMillis();
+        long rows;
+        List<ExportWriter> writers = new ArrayList<>();
+        try {
+            for (ExportRequest.ExportFormat format : formats) {
+                writers.add(formats.size() > 1
+                        ? queued(createWriter(format, exportDir, request))
+                        : createWriter(format, exportDir, request));
             }
-        }
-
-        log.info("Exported to Excel: {}", excelFile);
-        return excelFile.toString();
-    }
-
-    private String exportToPdf(ExportData data, Path exportDir) throws IOException {
-        Path pdfFile = exportDir.resolve("page_details.pdf");
-
-        try (PDDocument document = new PDDocument()) {
-            PDPage page = new PDPage();
-            document.addPage(page);
-
-            PDPageContentStream contentStream = new PDPageContentStream(document, page);
-
-            contentStream.beginText();
-            contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 14);
-            contentStream.newLineAtOffset(50, 750);
-            contentStream.showText("Page Details Export");
-            contentStream.endText();
-
-            contentStream.beginText();
-            contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 10);
-            contentStream.newLineAtOffset(50, 720);
-
-            int yPosition = 720;
-            int pageNumber = 0;
-
-            if (data.pages != null && !data.pages.isEmpty()) {
-                for (Page pg : data.pages) {
-                    pageNumber++;
-
-                    if (yPosition < 100) {
-                        // Add new page if running out of space
-                        contentStream.endText();
-                        contentStream.close();
-
-                        PDPage newPage = new PDPage();
-                        document.addPage(newPage);
-
-                        contentStream = new PDPageContentStream(document, newPage);
-                        contentStream.beginText();
-                        contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 10);
-                        contentStream.newLineAtOffset(50, 750);
-                        yPosition = 750;
-                    }
-
-                    String pageUrl = pg.getUrl() != null ? pg.getUrl() : "";
-                    contentStream.showText("#" + pageNumber + " - Page: " + (pageUrl.length() > 65 ? pageUrl.substring(0, 65) + "..." : pageUrl));
-                    contentStream.newLineAtOffset(0, -15);
-                    yPosition -= 15;
-
-                    if (pg.getChildPages() != null && !pg.getChildPages().isEmpty()) {
-                        contentStream.showText("  Child Pages: " + pg.getChildPages().size());
-                        contentStream.newLineAtOffset(0, -15);
-                        yPosition -= 15;
-                    }
-
-                    if (pg.getUrls() != null && !pg.getUrls().isEmpty()) {
-                        contentStream.showText("  External URLs: " + pg.getUrls().size());
-                        contentStream.newLineAtOffset(0, -15);
-                        yPosition -= 15;
-                    }
-
-                    if (pg.getDownloads() != null && !pg.getDownloads().isEmpty()) {
-                        contentStream.showText("  Downloaded Files: " + pg.getDownloads().size());
-                        contentStream.newLineAtOffset(0, -15);
-                        yPosition -= 15;
-                    }
-
-                    // Draw horizontal line between page groups
-                    if (pageNumber < data.pages.size()) {
-                        contentStream.endText();
-                        contentStream.setLineWidth(2f);
-                        contentStream.moveTo(50, yPosition - 5);
-                        contentStream.lineTo(550, yPosition - 5);
-                        contentStream.stroke();
-                        contentStream.beginText();
-                        contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 10);
-                        contentStream.newLineAtOffset(50, yPosition - 20);
-                        yPosition -= 20;
-                    } else {
-                        contentStream.newLineAtOffset(0, -10);
-                        yPosition -= 10;
-                    }
-                }
+            rows = sessionExportReader.read(session.getId(), request, writers, cursors, progress);
+            for (int i = 0; i < writers.size(); i++) {
+                exportedFiles.put(formats.get(i).name(), writers.get(i).finish());
+            }
+        } finally {
+            for (ExportWriter writer : writers) {
+                closeQuietly(writer);
             }
-
-            contentStream.endText();
-            contentStream.close();
-
-            document.save(pdfFile.toFile());
         }
-
-        log.info("Exported to PDF: {}", pdfFile);
-        return pdfFile.toString();
+        long durationMs = System.currentTimeMillis() - start;
+        double rowsPerSecond = rows * 1000.0 / Math.max(durationMs, 1);
+        log.info("Exported {} rows of session {} as {} in {} ms ({} rows/s)",
+                rows, session.getId(), formats, durationMs, Math.round(rowsPerSecond));
+
+        return ExportResponse.builder()
+                .directory(exportDir.toString())
+                .files(exportedFiles)
+                .rowsExported(rows)
+                .durationMs(durationMs)
+                .rowsPerSecond(rowsPerSecond)
+                .build();
     }
 
-    // Helper methods for Excel sheets
-    private void createSessionInfoSheet(Sheet sheet, CrawlSession session) {
-        int rowNum = 0;
-        createRow(sheet, rowNum++, "Session ID", String.valueOf(session.getId()));
-        createRow(sheet, rowNum++, "Start URL", session.getStartUrl());
-        createRow(sheet, rowNum++, "Base Domain", session.getBaseDomain());
-        createRow(sheet, rowNum++, "Status", session.getStatus().name());
-        createRow(sheet, rowNum++, "Start Time", session.getStartTime().toString());
-        if (session.getEndTime() != null) {
-            createRow(sheet, rowNum++, "End Time", session.getEndTime().toString());
+    private Map<String, ExportManifest.IdRange> idRanges(ExportRequest request, ExportCursors from, ExportCursors to) {
+        Map<String, ExportManifest.IdRange> tables = new LinkedHashMap<>();
+        if (request.getIncludePages()) {
+            tables.put("pages", new ExportManifest.IdRange(from.getPageId(), to.getPageId()));
+            tables.put("internalLinks", new ExportManifest.IdRange(from.getInternalLinkId(), to.getInternalLinkId()));
+            tables.put("externalUrls", new ExportManifest.IdRange(from.getExternalUrlId(), to.getExternalUrlId()));
         }
-        createRow(sheet, rowNum++, "Total Pages", String.valueOf(session.getTotalPages()));
-        createRow(sheet, rowNum++, "Total Flows", String.valueOf(session.getTotalFlows()));
-        createRow(sheet, rowNum++, "Total Extracted", String.valueOf(session.getTotalExtracted()));
-    }
-
-    private void createPagesSheet(Sheet sheet, List<Page> pages) {
-        Row headerRow = sheet.createRow(0);
-        headerRow.createCell(0).setCellValue("ID");
-        headerRow.createCell(1).setCellValue("URL");
-        headerRow.createCell(2).setCellValue("Parent URL");
-        headerRow.createCell(3).setCellValue("Depth");
-        headerRow.createCell(4).setCellValue("Status Code");
-        headerRow.createCell(5).setCellValue("Title");
-
-        int rowNum = 1;
-        for (Page page : pages) {
-            Row row = sheet.createRow(rowNum++);
-            row.createCell(0).setCellValue(page.getId());
-            row.createCell(1).setCellValue(page.getUrl() != null ? page.getUrl() : "");
-            row.createCell(2).setCellValue(page.getParentUrl() != null ? page.getParentUrl() : "");
-            row.createCell(3).setCellValue(page.getDepthLevel());
-            row.createCell(4).setCellValue(page.getStatusCode());
-            row.createCell(5).setCellValue(page.getTitle() != null ? page.getTitle() : "");
+        if (request.getIncludeFlows()) {
+            tables.put("flows", new ExportManifest.IdRange(from.getFlowId(), to.getFlowId()));
         }
-    }
-
-    private void createFlowsSheet(Sheet sheet, List<NavigationFlow> flows) {
-        Row headerRow = sheet.createRow(0);
-        headerRow.createCell(0).setCellValue("ID");
-        headerRow.createCell(1).setCellValue("Depth");
-        headerRow.createCell(2).setCellValue("Flow Path");
-
-        int rowNum = 1;
-        for (NavigationFlow flow : flows) {
-            Row row = sheet.createRow(rowNum++);
-            row.createCell(0).setCellValue(flow.getId());
-            row.createCell(1).setCellValue(flow.getDepth());
-            row.createCell(2).setCellValue(String.join(" → ", flow.getFlowPath()));
+        if (request.getIncludeExtractedData()) {
+            tables.put("extractedData", new ExportManifest.IdRange(from.getExtractedDataId(), to.getExtractedDataId()));
         }
-    }
-
-    private void createExtractedDataSheet(Sheet sheet, List<ExtractedData> extractedDataList) {
-        Row headerRow = sheet.createRow(0);
-        headerRow.createCell(0).setCellValue("ID");
-        headerRow.createCell(1).setCellValue("Page ID");
-        headerRow.createCell(2).setCellValue("Rule ID");
-        headerRow.createCell(3).setCellValue("Value");
-
-        int rowNum = 1;
-        for (ExtractedData data : extractedDataList) {
-            Row row = sheet.createRow(rowNum++);
-            row.createCell(0).setCellValue(data.getId());
-            row.createCell(1).setCellValue(data.getPageId());
-            row.createCell(2).setCellValue(data.getRuleId());
-            row.createCell(3).setCellValue(data.getExtractedValue());
+        if (request.getIncludeDownloadedFiles()) {
+            tables.put("downloadedFiles", new ExportManifest.IdRange(from.getDownloadedFileId(), to.getDownloadedFileId()));
         }
+        return tables;
     }
 
-    private void createDownloadedFilesSheet(Sheet sheet, List<DownloadedFile> files) {
-        Row headerRow = sheet.createRow(0);
-        headerRow.createCell(0).setCellValue("ID");
-        headerRow.createCell(1).setCellValue("File Name");
-        headerRow.createCell(2).setCellValue("URL");
-        headerRow.createCell(3).setCellValue("Local Path");
-        headerRow.createCell(4).setCellValue("File Size");
-
-        int rowNum = 1;
-        for (DownloadedFile file : files) {
-            Row row = sheet.createRow(rowNum++);
-            row.createCell(0).setCellValue(file.getId());
-            row.createCell(1).setCellValue(file.getFileName() != null ? file.getFileName() : "");
-            row.createCell(2).setCellValue(file.getUrl() != null ? file.getUrl() : "");
-            row.createCell(3).setCellValue(file.getLocalPath() != null ? file.getLocalPath() : "");
-            row.createCell(4).setCellValue(file.getFileSize() != null ? file.getFileSize() : 0L);
-        }
+    private void appendToManifest(Path manifestFile, Long sessionId, ExportManifest.Delta delta) throws IOException {
+        ExportManifest manifest = Files.exists(manifestFile)
+                ? objectMapper.readValue(manifestFile.toFile(), ExportManifest.class)
+                : ExportManifest.builder().sessionId(sessionId).build();
+        manifest.getDeltas().add(delta);
+        manifest.setUpdatedAt(LocalDateTime.now());
+
+        // Replace the manifest in one step so readers never see a partial file
+        Path tempFile = manifestFile.resolveSibling("manifest.json.tmp");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(tempFile.toFile(), manifest);
+        Files.move(tempFile, manifestFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
     }
 
-    private void createRow(Sheet sheet, int rowNum, String label, String value) {
-        Row row = sheet.createRow(rowNum);
-        row.createCell(0).setCellValue(label);
-        row.createCell(1).setCellValue(value);
+    private ExportWriter createWriter(ExportRequest.ExportFormat format, Path exportDir, ExportRequest request) throws IOException {
+        boolean gzip = Boolean.TRUE.equals(request.getGzip());
+        return switch (format) {
+            case CSV -> new CsvExportWriter(exportDir, gzip);
+            case JSONL -> new JsonLinesExportWriter(exportDir, gzip, objectMapper);
+            case EXCEL -> new ExcelExportWriter(exportDir);
+            case PDF -> new PdfExportWriter(exportDir);
+        };
     }
 
-    private void createPageDetailsSheet(Sheet sheet, ExportData data) {
-        int rowNum = 0;
-
-        // Header
-        Row headerRow = sheet.createRow(rowNum++);
-        headerRow.createCell(0).setCellValue("Page URL");
-        headerRow.createCell(1).setCellValue("Child Pages (Internal Links)");
-        headerRow.createCell(2).setCellValue("External URLs");
-        headerRow.createCell(3).setCellValue("Downloaded Files");
-
-        // For each page, find related data
-        for (Page page : data.pages) {
-            String pageUrl = page.getUrl() != null ? page.getUrl() : "";
-
-            // Use the structured fields that were already populated
-            List<String> childPages = new ArrayList<>();
-            if (page.getChildPages() != null) {
-                for (Page.ChildPage cp : page.getChildPages()) {
-                    childPages.add(cp.getPageUrl());
-                }
-            }
-
-            List<String> externalUrls = new ArrayList<>();
-            if (page.getUrls() != null) {
-                for (Page.ExternalUrlInfo url : page.getUrls()) {
-                    externalUrls.add(url.getUrl());
-                }
-            }
-
-            List<String> downloadedFiles = new ArrayList<>();
-            if (page.getDownloads() != null) {
-                for (Page.DownloadInfo download : page.getDownloads()) {
-                    downloadedFiles.add(download.getDownload());
-                }
-            }
-
-            // Find the maximum count to determine how many rows we need for this page
-            int maxCount = Math.max(Math.max(childPages.size(), externalUrls.size()), downloadedFiles.size());
-
-            // If no related data, still create one row for the page
-            if (maxCount == 0) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(pageUrl);
-                row.createCell(1).setCellValue("");
-                row.createCell(2).setCellValue("");
-                row.createCell(3).setCellValue("");
-            } else {
-                // Create multiple rows, one for each item
-                for (int i = 0; i < maxCount; i++) {
-                    Row row = sheet.createRow(rowNum++);
-                    row.createCell(0).setCellValue(pageUrl);
-                    row.createCell(1).setCellValue(i < childPages.size() ? childPages.get(i) : "");
-                    row.createCell(2).setCellValue(i < externalUrls.size() ? externalUrls.get(i) : "");
-                    row.createCell(3).setCellValue(i < downloadedFiles.size() ? downloadedFiles.get(i) : "");
-                }
-            }
-        }
-
-        // Auto-size columns
-        for (int i = 0; i < 4; i++) {
-            sheet.setColumnWidth(i, 8000);
+    private ExportWriter queued(ExportWriter writer) {
+        try {
+            return new QueuedExportWriter(writer, exportWriterExecutor);
+        } catch (RuntimeException e) {
+            closeQuietly(writer);
+            throw e;
         }
     }
 
-    private void createPageDetailsSheetWithMerging(Sheet sheet, ExportData data, Workbook workbook) {
-        int rowNum = 0;
-
-        // Header
-        Row headerRow = sheet.createRow(rowNum++);
-        headerRow.createCell(0).setCellValue("#");
-        headerRow.createCell(1).setCellValue("Page URL");
-        headerRow.createCell(2).setCellValue("Child Pages (Internal Links)");
-        headerRow.createCell(3).setCellValue("External URLs");
-        headerRow.createCell(4).setCellValue("Downloaded Files");
-
-        // Create styles
-        CellStyle centerStyle = workbook.createCellStyle();
-        centerStyle.setAlignment(HorizontalAlignment.CENTER);
-        centerStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-
-        CellStyle thickBottomBorder = workbook.createCellStyle();
-        thickBottomBorder.setBorderBottom(BorderStyle.THICK);
-
-        int pageNumber = 0;
-        // For each page, find related data
-        for (Page page : data.pages) {
-            pageNumber++;
-            String pageUrl = page.getUrl() != null ? page.getUrl() : "";
-
-            // Use the structured fields that were already populated
-            List<String> childPages = new ArrayList<>();
-            if (page.getChildPages() != null) {
-                for (Page.ChildPage cp : page.getChildPages()) {
-                    childPages.add(cp.getPageUrl());
-                }
-            }
-
-            List<String> externalUrls = new ArrayList<>();
-            if (page.getUrls() != null) {
-                for (Page.ExternalUrlInfo url : page.getUrls()) {
-                    externalUrls.add(url.getUrl());
-                }
-            }
-
-            List<String> downloadedFiles = new ArrayList<>();
-            if (page.getDownloads() != null) {
-                for (Page.DownloadInfo download : page.getDownloads()) {
-                    downloadedFiles.add(download.getDownload());
-                }
-            }
-
-            // Find the maximum count to determine how many rows we need for this page
-            int maxCount = Math.max(Math.max(childPages.size(), externalUrls.size()), downloadedFiles.size());
-
-            int startRow = rowNum;
-
-            // If no related data, still create one row for the page
-            if (maxCount == 0) {
-                Row row = sheet.createRow(rowNum++);
-                Cell numCell = row.createCell(0);
-                numCell.setCellValue(pageNumber);
-                numCell.setCellStyle(centerStyle);
-                row.createCell(1).setCellValue(pageUrl);
-                row.createCell(2).setCellValue("");
-                row.createCell(3).setCellValue("");
-                row.createCell(4).setCellValue("");
-            } else {
-                // Create multiple rows, one for each item
-                for (int i = 0; i < maxCount; i++) {
-                    Row row = sheet.createRow(rowNum++);
-                    Cell numCell = row.createCell(0);
-                    numCell.setCellValue(pageNumber);
-                    numCell.setCellStyle(centerStyle);
-                    row.createCell(1).setCellValue(pageUrl);
-                    row.createCell(2).setCellValue(i < childPages.size() ? childPages.get(i) : "");
-                    row.createCell(3).setCellValue(i < externalUrls.size() ? externalUrls.get(i) : "");
-                    row.createCell(4).setCellValue(i < downloadedFiles.size() ? downloadedFiles.get(i) : "");
-                }
-
-                // Merge cells in first two columns if multiple rows were created for this page
-                if (maxCount > 1) {
-                    // Merge # column
-                    sheet.addMergedRegion(new org.apache.poi.ss.util.CellRangeAddress(
-                            startRow, rowNum - 1, 0, 0
-                    ));
-                    // Merge Page URL column
-                    sheet.addMergedRegion(new org.apache.poi.ss.util.CellRangeAddress(
-                            startRow, rowNum - 1, 1, 1
-                    ));
-                }
-            }
-
-            // Add thick bottom border to last row of this page group
-            Row lastRow = sheet.getRow(rowNum - 1);
-            if (lastRow != null && pageNumber < data.pages.size()) {
-                for (int colIdx = 0; colIdx < 5; colIdx++) {
-                    Cell cell = lastRow.getCell(colIdx);
-                    if (cell != null) {
-                        CellStyle newStyle = workbook.createCellStyle();
-                        newStyle.cloneStyleFrom(cell.getCellStyle());
-                        newStyle.setBorderBottom(BorderStyle.THICK);
-                        cell.setCellStyle(newStyle);
-                    }
-                }
-            }
-        }
-
-        // Auto-size columns
-        sheet.setColumnWidth(0, 2000);  // # column narrower
-        for (int i = 1; i < 5; i++) {
-            sheet.setColumnWidth(i, 8000);
+    private void closeQuietly(ExportWriter writer) {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("Failed to close export writer: {}", e.getMessage());
         }
     }
-
-    // Data transfer object
-    private static class ExportData {
-        CrawlSession session;
-        List<Page> pages;
-        List<NavigationFlow> flows;
-        List<ExtractedData> extractedData;
-        List<DownloadedFile> downloadedFiles;
-        List<ExternalUrl> externalUrls;
-    }
 }
@@ -0,0 +1,189 @@
+package com.jcrawler.service;
+
+import com.jcrawler.model.FlowPathNode;
+import com.jcrawler.model.NavigationFlow;
+import com.jcrawler.repository.FlowPathNodeRepository;
+import com.jcrawler.repository.NavigationFlowRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Stores navigation flow paths as a per-session prefix trie of URL dictionary
+ * ids. A flow only keeps a pointer to its leaf node; the full path is rebuilt
+ * on read.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FlowPathStore {
+
+    private static final int IN_CLAUSE_BATCH_SIZE = 500;
+
+    private final FlowPathNodeRepository nodeRepository;
+    private final NavigationFlowRepository flowRepository;
+    private final UrlDictionary urlDictionary;
+
+    // (parentId + urlId) -> nodeId, so inserts during a crawl reuse the prefix nodes
+    private final SessionIdCache<String> nodeCache = new SessionIdCache<>();
+
+    /**
+     * Starts caching the session's trie nodes while it is crawling.
+     */
+    public void openSession(Long sessionId) {
+        nodeCache.open(sessionId);
+    }
+
+    /**
+     * Inserts the path into the session trie, reusing existing prefix nodes.
+     *
+     * @return id of the leaf node for the path
+     */
+    public Long insert(Long sessionId, List<String> path) {
+        if (path == null || path.isEmpty()) {
+            throw new IllegalArgumentException("Flow path must not be empty");
+        }
+
+        Long parentId = null;
+        for (int depth = 0; depth < path.size(); depth++) {
+            final Long currentParent = parentId;
+            final Long urlId = urlDictionary.idFor(sessionId, path.get(depth));
+            final int nodeDepth = depth;
+            parentId = nodeCache.getOrLoad(sessionId, currentParent + "|" + urlId, () ->
+                    nodeRepository.save(FlowPathNode.builder()
+                            .sessionId(sessionId)
+                            .parentId(currentParent)
+                            .urlId(urlId)
+                            .depth(nodeDepth)
+                            .build()).getId());
+        }
+        return parentId;
+    }
+
+    /**
+     * Rebuilds flowPath, startUrl and endUrl for the given flows of one session.
+     * Flows stored before the trie existed keep the path loaded from their own row.
+     */
+    public List<NavigationFlow> resolvePaths(Long sessionId, List<NavigationFlow> flows) {
+        if (flows.isEmpty()) {
+            return flows;
+        }
+
+        Map<Long, FlowPathNode> nodes = loadAncestors(flows.stream().map(NavigationFlow::getPathNodeId).toList());
+        Map<Long, String> urls = urlDictionary.resolve(nodes.values().stream().map(FlowPathNode::getUrlId).toList());
+        Map<Long, List<String>> resolved = new HashMap<>();
+
+        for (NavigationFlow flow : flows) {
+            if (flow.getPathNodeId() == null) {
+                continue;
+            }
+            List<String> path = buildPath(flow.getPathNodeId(), nodes, urls, resolved);
+            flow.setFlowPath(path);
+            if (!path.isEmpty()) {
+                flow.setStartUrl(path.get(0));
+                flow.setEndUrl(path.get(path.size() - 1));
+            }
+        }
+        return flows;
+    }
+
+    /**
+     * Returns the flows whose path passes through the given URL, in id order after
+     * {@code afterId}. The trie subtrees rooted at the nodes for that URL are
+     * walked one level per query.
+     */
+    public List<NavigationFlow> findFlowsThrough(Long sessionId, String url, long afterId, int limit) {
+        Optional<Long> urlId = urlDictionary.findId(sessionId, url);
+        if (urlId.isEmpty()) {
+            return List.of();
+        }
+
+        // A URL can appear more than once on a path, so a subtree may contain another
+        Set<Long> subtree = new HashSet<>();
+        List<Long> level = nodeRepository.findIdsBySessionIdAndUrlId(sessionId, urlId.get());
+        while (!level.isEmpty()) {
+            subtree.addAll(level);
+            List<Long> children = new ArrayList<>();
+            for (int i = 0; i < level.size(); i += IN_CLAUSE_BATCH_SIZE) {
+                List<Long> batch = level.subList(i, Math.min(i + IN_CLAUSE_BATCH_SIZE, level.size()));
+                for (Long child : nodeRepository.findIdsBySessionIdAndParentIdIn(sessionId, batch)) {
+                    if (!subtree.contains(child)) {
+                        children.add(child);
+                    }
+                }
+            }
+            level = children;
+        }
+
+        // The first page of each batch; together they hold the first page overall
+        Pageable firstPage = PageRequest.of(0, limit);
+        List<NavigationFlow> flows = new ArrayList<>();
+        List<Long> nodeIds = new ArrayList<>(subtree);
+        for (int i = 0; i < nodeIds.size(); i += IN_CLAUSE_BATCH_SIZE) {
+            List<Long> batch = nodeIds.subList(i, Math.min(i + IN_CLAUSE_BATCH_SIZE, nodeIds.size()));
+            flows.addAll(flowRepository.findBySessionIdAndPathNodeIdInAndIdGreaterThanOrderByIdAsc(sessionId, batch, afterId, firstPage));
+        }
+        flows.sort(Comparator.comparing(NavigationFlow::getId));
+
+        return resolvePaths(sessionId, new ArrayList<>(flows.subList(0, Math.min(limit, flows.size()))));
+    }
+
+    /**
+     * Drops the insert cache for a session once its crawl has finished.
+     */
+    public void evictSession(Long sessionId) {
+        nodeCache.evict(sessionId);
+    }
+
+    /**
+     * Loads the given nodes and all their ancestors, one level per round trip.
+     */
+    private Map<Long, FlowPathNode> loadAncestors(Collection<Long> nodeIds) {
+        Map<Long, FlowPathNode> nodes = new HashMap<>();
+        List<Long> pending = nodeIds.stream().filter(Objects::nonNull).distinct().toList();
+
+        while (!pending.isEmpty()) {
+            Set<Long> parents = new HashSet<>();
+            for (int i = 0; i < pending.size(); i += IN_CLAUSE_BATCH_SIZE) {
+                List<Long> batch = pending.subList(i, Math.min(i + IN_CLAUSE_BATCH_SIZE, pending.size()));
+                for (FlowPathNode node : nodeRepository.findAllById(batch)) {
+                    nodes.put(node.getId(), node);
+                    if (node.getParentId() != null) {
+                        parents.add(node.getParentId());
+                    }
+                }
+            }
+            parents.removeAll(nodes.keySet());
+            pending = new ArrayList<>(parents);
+        }
+        return nodes;
+    }
+
+    private List<String> buildPath(Long nodeId, Map<Long, FlowPathNode> nodes, Map<Long, String> urls,
+                                   Map<Long, List<String>> resolved) {
+        if (nodeId == null) {
+            return List.of();
+        }
+
+        List<String> cached = resolved.get(nodeId);
+        if (cached != null) {
+            return cached;
+        }
+
+        FlowPathNode node = nodes.get(nodeId);
+        if (node == null) {
+            log.warn("Missing flow path node {}", nodeId);
+            return List.of();
+        }
+
+        // Shared prefixes are resolved once and reused by every flow below them
+        List<String> path = new ArrayList<>(buildPath(node.getParentId(), nodes, urls, resolved));
+        path.add(urls.get(node.getUrlId()));
+        resolved.put(nodeId, path);
+        return path;
+    }
+}
@@ -0,0 +1,106 @@
+package com.jcrawler.service;
+
+import com.jcrawler.model.DownloadedFile;
+import com.jcrawler.model.ExternalUrl;
+import com.jcrawler.model.InternalLink;
+import com.jcrawler.model.Page;
+import com.jcrawler.repository.DownloadedFileRepository;
+import com.jcrawler.repository.ExternalUrlRepository;
+import com.jcrawler.repository.InternalLinkRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Populates the URLs, child pages, external URLs and downloads of pages with a
+ * few grouped queries, indexed in hash maps by page, instead of one query per
+ * page. Shared by the pages endpoint and the exporters.
+ */
+@Service
+@RequiredArgsConstructor
+public class PageDetailAssembler {
+
+    private static final int IN_CLAUSE_BATCH_SIZE = 500;
+
+    private final InternalLinkRepository internalLinkRepository;
+    private final ExternalUrlRepository externalUrlRepository;
+    private final DownloadedFileRepository downloadedFileRepository;
+    private final UrlDictionary urlDictionary;
+
+    /**
+     * Populates details for a slice of a session's pages, querying only the rows
+     * that belong to those pages.
+     */
+    public List<Page> assemble(Long sessionId, List<Page> pages) {
+        for (int i = 0; i < pages.size(); i += IN_CLAUSE_BATCH_SIZE) {
+            List<Page> batch = urlDictionary.resolvePages(pages.subList(i, Math.min(i + IN_CLAUSE_BATCH_SIZE, pages.size())));
+
+            List<Long> urlIds = new ArrayList<>();
+            List<String> legacyUrls = new ArrayList<>();
+            List<Long> pageIds = new ArrayList<>();
+            for (Page page : batch) {
+                // Pages crawled before the URL dictionary existed only have the URL string
+                if (page.getUrlId() != null) {
+                    urlIds.add(page.getUrlId());
+                } else {
+                    legacyUrls.add(page.getUrl());
+                }
+                pageIds.add(page.getId());
+            }
+
+            List<InternalLink> links = new ArrayList<>();
+            List<ExternalUrl> externalUrls = new ArrayList<>();
+            if (!urlIds.isEmpty()) {
+                links.addAll(internalLinkRepository.findBySessionIdAndFoundOnPageIdInOrderByIdAsc(sessionId, urlIds));
+                externalUrls.addAll(externalUrlRepository.findBySessionIdAndFoundOnPageIdInOrderByIdAsc(sessionId, urlIds));
+            }
+            if (!legacyUrls.isEmpty()) {
+                links.addAll(internalLinkRepository.findBySessionIdAndLegacyFoundOnPageInOrderByIdAsc(sessionId, legacyUrls));
+                externalUrls.addAll(externalUrlRepository.findBySessionIdAndLegacyFoundOnPageInOrderByIdAsc(sessionId, legacyUrls));
+            }
+
+            attach(batch, urlDictionary.resolveInternalLinks(links), urlDictionary.resolveExternalUrls(externalUrls),
+                    urlDictionary.resolveDownloadedFiles(downloadedFileRepository.findBySessionIdAndPageIdInOrderByIdAsc(sessionId, pageIds)));
+        }
+        return pages;
+    }
+
+    private void attach(List<Page> pages, List<InternalLink> links, List<ExternalUrl> externalUrls,
+                        List<DownloadedFile> downloadedFiles) {
+        Map<Object, List<Page.ChildPage>> childPagesByPage = new HashMap<>();
+        for (InternalLink link : links) {
+            childPagesByPage.computeIfAbsent(pageKey(link.getFoundOnPageId(), link.getFoundOnPage()), k -> new ArrayList<>())
+                    .add(new Page.ChildPage(link.getUrl()));
+        }
+
+        Map<Object, List<Page.ExternalUrlInfo>> urlsByPage = new HashMap<>();
+        for (ExternalUrl externalUrl : externalUrls) {
+            if (externalUrl.getFoundOnPage() == null && externalUrl.getFoundOnPageId() == null) {
+                continue;
+            }
+            urlsByPage.computeIfAbsent(pageKey(externalUrl.getFoundOnPageId(), externalUrl.getFoundOnPage()), k -> new ArrayList<>())
+                    .add(new Page.ExternalUrlInfo(externalUrl.getUrl()));
+        }
+
+        Map<Long, List<Page.DownloadInfo>> downloadsByPage = new HashMap<>();
+        for (DownloadedFile file : downloadedFiles) {
+            if (file.getPageId() == null) {
+                continue;
+            }
+            downloadsByPage.computeIfAbsent(file.getPageId(), k -> new ArrayList<>())
+                    .add(new Page.DownloadInfo(file.getFileName() != null ? file.getFileName() : file.getUrl()));
+        }
+
+        for (Page page : pages) {
+            Object key = pageKey(page.getUrlId(), page.getUrl());
+            page.setChildPages(childPagesByPage.getOrDefault(key, new ArrayList<>()));
+            page.setUrls(urlsByPage.getOrDefault(key, new ArrayList<>()));
+            page.setDownloads(downloadsByPage.getOrDefault(page.getId(), new ArrayList<>()));
+        }
+    }
+
+    private Object pageKey(Long urlId, String url) {
+        return urlId != null ? urlId : url;
+    }
+}
@@ -0,0 +1,242 @@
+package com.jcrawler.service;
+
+import com.jcrawler.dto.ChangeReport;
+import com.jcrawler.model.*;
+import com.jcrawler.repository.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Gives refresh and incremental crawls access to their base session: finds
+ * the base session's page for a URL, copies the base session's results for a
+ * page that has not changed into the new session, so the page is neither
+ * downloaded nor parsed again, and reports what changed between the two.
+ */
+@Service
+@RequiredArgsConstructor
+public class SessionBaseline {
+
+    private static final List<CrawlSession.CrawlStatus> FINISHED =
+            List.of(CrawlSession.CrawlStatus.COMPLETED, CrawlSession.CrawlStatus.STOPPED);
+
+    private final CrawlSessionRepository sessionRepository;
+    private final PageRepository pageRepository;
+    private final InternalLinkRepository internalLinkRepository;
+    private final ExternalUrlRepository externalUrlRepository;
+    private final DownloadedFileRepository downloadedFileRepository;
+    private final ExtractedDataRepository extractedDataRepository;
+    private final ExtractionRuleRepository ruleRepository;
+    private final UrlDictionary urlDictionary;
+
+    /**
+     * The requested base session, or else the latest finished session with the
+     * same start URL (refresh) or domain (incremental).
+     */
+    public Optional<CrawlSession> resolve(CrawlSession.CrawlMode crawlMode, String startUrl, String baseDomain, Long baseSessionId) {
+        if (baseSessionId != null) {
+            return sessionRepository.findById(baseSessionId);
+        }
+        if (crawlMode == CrawlSession.CrawlMode.INCREMENTAL) {
+            return sessionRepository.findFirstByBaseDomainAndStatusInOrderByIdDesc(baseDomain, FINISHED);
+        }
+        return sessionRepository.findFirstByStartUrlAndStatusInOrderByIdDesc(startUrl, FINISHED);
+    }
+
+    /**
+     * Whether the session has pages stored before the URL dictionary existed,
+     * which can only be found by their URL column.
+     */
+    public boolean hasLegacyPages(Long baseSessionId) {
+        return pageRepository.existsBySessionIdAndUrlIdIsNull(baseSessionId);
+    }
+
+    /**
+     * The base session's successfully processed page for the URL, or null.
+     *
+     * @param legacyPages result of {@link #hasLegacyPages} for the base session
+     */
+    public Page findPage(Long baseSessionId, String url, boolean legacyPages) {
+        return urlDictionary.findId(baseSessionId, url)
+                .flatMap(urlId -> pageRepository.findFirstBySessionIdAndUrlIdOrderByIdDesc(baseSessionId, urlId))
+                .or(() -> legacyPages
+                        ? pageRepository.findFirstBySessionIdAndLegacyUrlOrderByIdDesc(baseSessionId, url)
+                        : Optional.empty())
+                .filter(page -> Boolean.TRUE.equals(page.getProcessed()))
+                .orElse(null);
+    }
+
+    /**
+     * Copies the internal links, external URLs and attachments found on
+     * {@code previous} to {@code page}, which must already be saved.
+     *
+     * @return the internal link URLs
+     */
+    public List<String> copyLinks(Long baseSessionId, Page previous, Page page) {
+        Long sessionId = page.getSessionId();
+
+        List<InternalLink> previousLinks = urlDictionary.resolveInternalLinks(previous.getUrlId() != null
+                ? internalLinkRepository.findBySessionIdAndFoundOnPageId(baseSessionId, previous.getUrlId())
+                : internalLinkRepository.findBySessionIdAndLegacyFoundOnPage(baseSessionId, previous.getUrl()));
+        List<InternalLink> links = new ArrayList<>();
+        for (InternalLink link : previousLinks) {
+            links.add(InternalLink.builder()
+                    .sessionId(sessionId)
+                    .urlId(urlDictionary.idFor(sessionId, link.getUrl()))
+                    .foundOnPageId(page.getUrlId())
+                    .discoveredAt(page.getVisitedAt())
+                    .build());
+        }
+        internalLinkRepository.saveAll(links);
+
+        List<ExternalUrl> previousExternalUrls = urlDictionary.resolveExternalUrls(previous.getUrlId() != null
+                ? externalUrlRepository.findBySessionIdAndFoundOnPageIdInOrderByIdAsc(baseSessionId, List.of(previous.getUrlId()))
+                : externalUrlRepository.findBySessionIdAndLegacyFoundOnPageInOrderByIdAsc(baseSessionId, List.of(previous.getUrl())));
+        List<ExternalUrl> externalUrls = new ArrayList<>();
+        for (ExternalUrl externalUrl : previousExternalUrls) {
+            externalUrls.add(ExternalUrl.builder()
+                    .sessionId(sessionId)
+                    .urlId(urlDictionary.idFor(sessionId, externalUrl.getUrl()))
+                    .foundOnPageId(page.getUrlId())
+                    .discoveredAt(page.getVisitedAt())
+                    .domain(externalUrl.getDomain())
+                    .build());
+        }
+        externalUrlRepository.saveAll(externalUrls);
+
+        List<DownloadedFile> files = new ArrayList<>();
+        for (DownloadedFile file : urlDictionary.resolveDownloadedFiles(
+                downloadedFileRepository.findBySessionIdAndPageIdInOrderByIdAsc(baseSessionId, List.of(previous.getId())))) {
+            files.add(DownloadedFile.builder()
+                    .sessionId(sessionId)
+                    .pageId(page.getId())
+                    .urlId(urlDictionary.idFor(sessionId, file.getUrl()))
+                    .localPath(file.getLocalPath())
+                    .fileName(file.getFileName())
+                    .fileSize(file.getFileSize())
+                    .mimeType(file.getMimeType())
+                    .fileExtension(file.getFileExtension())
+                    .downloadedAt(file.getDownloadedAt())
+                    .downloadSuccess(file.getDownloadSuccess())
+                    .errorMessage(file.getErrorMessage())
+                    .build());
+        }
+        downloadedFileRepository.saveAll(files);
+
+        if (!externalUrls.isEmpty() || !files.isEmpty()) {
+            sessionRepository.findById(sessionId).ifPresent(session -> {
+                session.setTotalExternalUrls(session.getTotalExternalUrls() + externalUrls.size());
+                session.setTotalDownloaded(session.getTotalDownloaded() + files.size());
+                sessionRepository.save(session);
+            });
+        }
+
+        return previousLinks.stream().map(InternalLink::getUrl).toList();
+    }
+
+    /**
+     * Copies the values the base session extracted from {@code previous} for
+     * rules that the new session has too (same selector and attribute).
+     *
+     * @param rules the new session's enabled rules
+     * @return the rules the base session did not have, which still need to be applied
+     */
+    public List<ExtractionRule> copyExtractedData(Long baseSessionId, Page previous, Page page, List<ExtractionRule> rules) {
+        if (rules.isEmpty()) {
+            return rules;
+        }
+
+        // Base session rule id -> new session rule
+        Map<Long, ExtractionRule> ruleMapping = ruleRepository.findBySessionId(baseSessionId).stream()
+                .flatMap(baseRule -> rules.stream()
+                        .filter(rule -> sameSelector(baseRule, rule))
+                        .findFirst()
+                        .map(rule -> Map.entry(baseRule.getId(), rule))
+                        .stream())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a));
+
+        List<ExtractedData> data = new ArrayList<>();
+        for (ExtractedData value : extractedDataRepository.findBySessionIdAndPageId(baseSessionId, previous.getId())) {
+            ExtractionRule rule = ruleMapping.get(value.getRuleId());
+            if (rule != null) {
+                data.add(ExtractedData.builder()
+                        .sessionId(page.getSessionId())
+                        .pageId(page.getId())
+                        .ruleId(rule.getId())
+                        .extractedValue(value.getExtractedValue())
+                        .extractedAt(page.getVisitedAt())
+                        .build());
+            }
+        }
+        extractedDataRepository.saveAll(data);
+
+        if (!data.isEmpty()) {
+            sessionRepository.findById(page.getSessionId()).ifPresent(session -> {
+                session.setTotalExtracted(session.getTotalExtracted() + data.size());
+                sessionRepository.save(session);
+            });
+        }
+
+        return rules.stream()
+                .filter(rule -> !ruleMapping.containsValue(rule))
+                .toList();
+    }
+
+    /**
+     * Compares the session's pages with its base session.
+     *
+     * @param limit maximum number of URLs listed per kind of change
+     */
+    public ChangeReport changeReport(CrawlSession session, int limit) {
+        Map<Page.ChangeStatus, Long> counts = new EnumMap<>(Page.ChangeStatus.class);
+        for (Object[] row : pageRepository.countByChangeStatus(session.getId())) {
+            if (row[0] != null) {
+                counts.put((Page.ChangeStatus) row[0], (Long) row[1]);
+            }
+        }
+
+        // Dictionary ids differ between sessions, so removed pages are found by URL in memory
+        Set<String> crawled = new HashSet<>(pageRepository.findUrlsBySessionId(session.getId()));
+        List<String> removedUrls = new ArrayList<>();
+        long removed = 0;
+        if (session.getBaseSessionId() != null) {
+            for (String url : pageRepository.findUrlsBySessionId(session.getBaseSessionId())) {
+                if (!crawled.contains(url)) {
+                    removed++;
+                    if (removedUrls.size() < limit) {
+                        removedUrls.add(url);
+                    }
+                }
+            }
+        }
+
+        PageRequest firstPage = PageRequest.of(0, limit);
+        return ChangeReport.builder()
+                .sessionId(session.getId())
+                .baseSessionId(session.getBaseSessionId())
+                .added(counts.getOrDefault(Page.ChangeStatus.ADDED, 0L))
+                .modified(counts.getOrDefault(Page.ChangeStatus.MODIFIED, 0L))
+                .unchanged(counts.getOrDefault(Page.ChangeStatus.UNCHANGED, 0L))
+                .removed(removed)
+                .addedUrls(pageRepository.findUrlsByChangeStatus(session.getId(), Page.ChangeStatus.ADDED, firstPage))
+                .modifiedUrls(pageRepository.findUrlsByChangeStatus(session.getId(), Page.ChangeStatus.MODIFIED, firstPage))
+                .removedUrls(removedUrls)
+                .build();
+    }
+
+    private static boolean sameSelector(ExtractionRule a, ExtractionRule b) {
+        return a.getSelectorType() == b.getSelectorType()
+                && Objects.equals(a.getSelectorValue(), b.getSelectorValue())
+                && Objects.equals(a.getAttributeToExtract(), b.getAttributeToExtract());
+    }
+}
@@ -0,0 +1,82 @@
+package com.jcrawler.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Writes session data as newline-delimited JSON straight from a database
+ * cursor. Rows are handled in small batches and detached after writing, so
+ * memory stays flat regardless of session size.
+ */
+@Service
+@RequiredArgsConstructor
+public class SessionDataStreamer {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public <T> void writeNdjson(OutputStream out, Supplier<Stream<T>> source) {
+        writeNdjson(out, source, UnaryOperator.identity());
+    }
+
+    /**
+     * @param enricher applied to each batch before it is written, e.g. to attach page details
+     */
+    public <T> void writeNdjson(OutputStream out, Supplier<Stream<T>> source, UnaryOperator<List<T>> enricher) {
+        ObjectWriter writer = objectMapper.writer();
+        BufferedOutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try (Stream<T> rows = source.get()) {
+                List<T> batch = new ArrayList<>(BATCH_SIZE);
+                rows.forEach(row -> {
+                    batch.add(row);
+                    if (batch.size() == BATCH_SIZE) {
+                        writeBatch(buffered, writer, enricher.apply(batch));
+                        batch.clear();
+                    }
+                });
+                if (!batch.isEmpty()) {
+                    writeBatch(buffered, writer, enricher.apply(batch));
+                }
+                buffered.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private <T> void writeBatch(OutputStream out, ObjectWriter writer, List<T> batch) {
+        try {
+            for (T row : batch) {
+                out.write(writer.writeValueAsBytes(row));
+                out.write('\n');
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // Written rows are no longer needed; keep the persistence context empty
+        entityManager.clear();
+    }
+}
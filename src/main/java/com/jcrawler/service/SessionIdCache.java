@@ -0,0 +1,73 @@
+package com.jcrawler.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache of database ids per crawling session. The database round
+ * trip for a missing key runs outside the map's locks; callers asking for the
+ * same key meanwhile wait for that one result instead of creating a second row.
+ * <p>
+ * Only sessions opened with {@link #open} are cached, so a late caller for a
+ * session that has already been evicted goes to the database without bringing
+ * the cache back.
+ */
+class SessionIdCache<K> {
+
+    // sessionId -> key -> id
+    private final Map<Long, Map<K, CompletableFuture<Long>>> sessions = new ConcurrentHashMap<>();
+
+    void open(Long sessionId) {
+        sessions.putIfAbsent(sessionId, new ConcurrentHashMap<>());
+    }
+
+    void evict(Long sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    /**
+     * Returns the cached id if it has already been loaded.
+     */
+    Optional<Long> get(Long sessionId, K key) {
+        Map<K, CompletableFuture<Long>> ids = sessions.get(sessionId);
+        CompletableFuture<Long> id = ids != null ? ids.get(key) : null;
+        return id != null && id.isDone() && !id.isCompletedExceptionally()
+                ? Optional.of(id.join())
+                : Optional.empty();
+    }
+
+    /**
+     * Returns the cached id, or loads it with {@code loader} and caches it.
+     */
+    Long getOrLoad(Long sessionId, K key, Supplier<Long> loader) {
+        Map<K, CompletableFuture<Long>> ids = sessions.get(sessionId);
+        if (ids == null) {
+            return loader.get();
+        }
+
+        CompletableFuture<Long> loading = new CompletableFuture<>();
+        CompletableFuture<Long> existing = ids.putIfAbsent(key, loading);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                // The loading caller failed and has removed its entry; load again
+                return getOrLoad(sessionId, key, loader);
+            }
+        }
+
+        try {
+            Long id = loader.get();
+            loading.complete(id);
+            return id;
+        } catch (RuntimeException e) {
+            ids.remove(key, loading);
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.jcrawler.service;
+
+import com.jcrawler.model.DownloadedFile;
+import com.jcrawler.model.ExternalUrl;
+import com.jcrawler.model.InternalLink;
+import com.jcrawler.model.Page;
+import com.jcrawler.model.UrlEntry;
+import com.jcrawler.repository.UrlEntryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Per-session URL dictionary (url_id <-> url). IDs are handed out from an
+ * in-process cache while a session is crawling, so only the first sighting of
+ * a URL costs a database round-trip.
+ * <p>
+ * Pages, links, external URLs and downloads store only URL ids; their URL
+ * strings are filled in by the {@code resolve...} methods after loading.
+ */
+@Service
+@RequiredArgsConstructor
+public class UrlDictionary {
+
+    private static final int IN_CLAUSE_BATCH_SIZE = 500;
+
+    private final UrlEntryRepository urlEntryRepository;
+
+    private final SessionIdCache<String> cache = new SessionIdCache<>();
+
+    /**
+     * Starts caching the session's ids while it is crawling.
+     */
+    public void openSession(Long sessionId) {
+        cache.open(sessionId);
+    }
+
+    /**
+     * Returns the id for the URL in the session dictionary, creating it if needed.
+     */
+    public Long idFor(Long sessionId, String url) {
+        if (url == null) {
+            return null;
+        }
+        return cache.getOrLoad(sessionId, url, () -> lookupOrCreate(sessionId, url));
+    }
+
+    /**
+     * Returns the id for the URL if it is already in the session dictionary.
+     */
+    public Optional<Long> findId(Long sessionId, String url) {
+        return cache.get(sessionId, url)
+                .or(() -> lookup(sessionId, url).map(UrlEntry::getId));
+    }
+
+    /**
+     * Resolves a batch of URL ids to their URLs.
+     */
+    public Map<Long, String> resolve(Collection<Long> urlIds) {
+        Map<Long, String> urls = new HashMap<>();
+        List<Long> ids = urlIds.stream().filter(Objects::nonNull).distinct().toList();
+        for (int i = 0; i < ids.size(); i += IN_CLAUSE_BATCH_SIZE) {
+            for (UrlEntry entry : urlEntryRepository.findAllById(ids.subList(i, Math.min(i + IN_CLAUSE_BATCH_SIZE, ids.size())))) {
+                urls.put(entry.getId(), entry.getUrl());
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * Fills in the URL and parent URL of pages loaded from the database.
+     */
+    public List<Page> resolvePages(List<Page> pages) {
+        Map<Long, String> urls = resolve(pages.stream()
+                .flatMap(page -> Stream.of(page.getUrlId(), page.getParentUrlId()))
+                .toList());
+        for (Page page : pages) {
+            if (page.getUrlId() != null) {
+                page.setUrl(urls.get(page.getUrlId()));
+                page.setParentUrl(urls.get(page.getParentUrlId()));
+            }
+        }
+        return pages;
+    }
+
+    public List<InternalLink> resolveInternalLinks(List<InternalLink> links) {
+        Map<Long, String> urls = resolve(links.stream()
+                .flatMap(link -> Stream.of(link.getUrlId(), link.getFoundOnPageId()))
+                .toList());
+        for (InternalLink link : links) {
+            if (link.getUrlId() != null) {
+                link.setUrl(urls.get(link.getUrlId()));
+                link.setFoundOnPage(urls.get(link.getFoundOnPageId()));
+            }
+        }
+        return links;
+    }
+
+    public List<ExternalUrl> resolveExternalUrls(List<ExternalUrl> externalUrls) {
+        Map<Long, String> urls = resolve(externalUrls.stream()
+                .flatMap(externalUrl -> Stream.of(externalUrl.getUrlId(), externalUrl.getFoundOnPageId()))
+                .toList());
+        for (ExternalUrl externalUrl : externalUrls) {
+            if (externalUrl.getUrlId() != null) {
+                externalUrl.setUrl(urls.get(externalUrl.getUrlId()));
+                externalUrl.setFoundOnPage(urls.get(externalUrl.getFoundOnPageId()));
+            }
+        }
+        return externalUrls;
+    }
+
+    public List<DownloadedFile> resolveDownloadedFiles(List<DownloadedFile> files) {
+        Map<Long, String> urls = resolve(files.stream().map(DownloadedFile::getUrlId).toList());
+        for (DownloadedFile file : files) {
+            if (file.getUrlId() != null) {
+                file.setUrl(urls.get(file.getUrlId()));
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Drops the in-process cache for a session once its crawl has finished.
+     */
+    public void evictSession(Long sessionId) {
+        cache.evict(sessionId);
+    }
+
+    private Long lookupOrCreate(Long sessionId, String url) {
+        return lookup(sessionId, url)
+                .orElseGet(() -> urlEntryRepository.save(UrlEntry.builder()
+                        .sessionId(sessionId)
+                        .urlHash(hash(url))
+                        .url(url)
+                        .build()))
+                .getId();
+    }
+
+    private Optional<UrlEntry> lookup(Long sessionId, String url) {
+        // Hash collisions are resolved by comparing the stored URL
+        return urlEntryRepository.findBySessionIdAndUrlHash(sessionId, hash(url)).stream()
+                .filter(entry -> entry.getUrl().equals(url))
+                .findFirst();
+    }
+
+    private static long hash(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(url.getBytes(StandardCharsets.UTF_8));
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (digest[i] & 0xff);
+            }
+            return value;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+}
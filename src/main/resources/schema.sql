@@ -0,0 +1,19 @@
+-- Schema changes the Hibernate schema update (ddl-auto=update) cannot make on
+-- databases created by earlier versions. Runs after the schema update on every
+-- start, so each statement must be safe to repeat; a failing statement stops
+-- the application from starting.
+
+-- URL strings moved to the URL dictionary; the old columns are only read for
+-- rows crawled before that
+ALTER TABLE IF EXISTS page ALTER COLUMN IF EXISTS url SET NULL;
+ALTER TABLE IF EXISTS internal_link ALTER COLUMN IF EXISTS url SET NULL;
+ALTER TABLE IF EXISTS external_url ALTER COLUMN IF EXISTS url SET NULL;
+ALTER TABLE IF EXISTS downloaded_file ALTER COLUMN IF EXISTS url SET NULL;
+
+-- Flow paths moved to the flow path trie; the old column is only read for
+-- flows stored before that
+ALTER TABLE IF EXISTS navigation_flow ALTER COLUMN IF EXISTS flow_path SET NULL;
+
+-- Indexes on the old URL string columns, replaced by the URL id indexes
+DROP INDEX IF EXISTS idx_session_url;
+DROP INDEX IF EXISTS idx_found_on_page;